@@ -33,11 +33,19 @@ public @interface TranslatorField {
     String[] sqlTemplateParam() default {};
 
     /**
-     * SQL模板
+     * SQL模板，使用dictCode、enumType或source时不需要
      *
      * @return
      */
-    String sql();
+    String sql() default "";
+
+    /**
+     * 批量查询SQL模板，同样使用MessageFormat格式化，IN列表的占位处写%s，
+     * 查询结果第一列为关联字段的值，第二列为转译值。仅在单个关联字段时生效
+     *
+     * @return
+     */
+    String batchSql() default "";
 
     /**
      * 缓存Key的前缀
@@ -45,4 +53,39 @@ public @interface TranslatorField {
      * @return
      */
     String cacheKeyPrefix() default "";
+
+    /**
+     * 进程内转译的枚举类型，按关联字段的值查找枚举常量并取其显示值，不读缓存、不查库
+     *
+     * @return
+     */
+    Class<?> enumType() default void.class;
+
+    /**
+     * 枚举中与关联字段的值对应的属性，不指定时为name()
+     *
+     * @return
+     */
+    String enumCode() default "";
+
+    /**
+     * 枚举中作为转译值的属性，不指定时为toString()
+     *
+     * @return
+     */
+    String enumLabel() default "";
+
+    /**
+     * 进程内转译来源(TranslationSource)的名称，如代码中的码表，不读缓存、不查库
+     *
+     * @return
+     */
+    String source() default "";
+
+    /**
+     * 字段所属的分组，@TranslatorReturn或调用方指定分组时只转译所选分组的字段；不声明分组的字段只在不指定分组时转译
+     *
+     * @return
+     */
+    String[] groups() default {};
 }
@@ -6,8 +6,23 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
-@Target({ElementType.FIELD})
+@Target({ElementType.METHOD, ElementType.FIELD})
 @Retention(RetentionPolicy.RUNTIME)
 @Documented
 public @interface TranslatorReturn {
+
+    /**
+     * 转译的时限，单位为毫秒，超过后剩余的key使用过期值或不转译。
+     * 0为不限时，小于0时使用全局配置的timeout
+     *
+     * @return
+     */
+    long timeout() default -1;
+
+    /**
+     * 只转译@TranslatorField的groups包含其中任一分组的字段，其余字段不查询，为空时转译所有字段
+     *
+     * @return
+     */
+    String[] groups() default {};
 }
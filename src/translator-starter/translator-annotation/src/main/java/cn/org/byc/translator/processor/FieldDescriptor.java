@@ -0,0 +1,63 @@
+package cn.org.byc.translator.processor;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * 一个转译字段的编译期信息，sql已经用sqlTemplateParam格式化，缓存Key前缀已确定
+ */
+public final class FieldDescriptor {
+
+    private final String fieldName;
+    private final List<Function<Object, Object>> associateFieldGetters;
+    private final BiConsumer<Object, Object> fieldSetter;
+    private final String dictCode;
+    private final String sql;
+    private final String batchSql;
+    private final String cacheKeyPrefix;
+
+    public FieldDescriptor(String fieldName,
+                           List<Function<Object, Object>> associateFieldGetters,
+                           BiConsumer<Object, Object> fieldSetter,
+                           String dictCode,
+                           String sql,
+                           String batchSql,
+                           String cacheKeyPrefix) {
+        this.fieldName = fieldName;
+        this.associateFieldGetters = associateFieldGetters;
+        this.fieldSetter = fieldSetter;
+        this.dictCode = dictCode;
+        this.sql = sql;
+        this.batchSql = batchSql;
+        this.cacheKeyPrefix = cacheKeyPrefix;
+    }
+
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    public List<Function<Object, Object>> getAssociateFieldGetters() {
+        return associateFieldGetters;
+    }
+
+    public BiConsumer<Object, Object> getFieldSetter() {
+        return fieldSetter;
+    }
+
+    public String getDictCode() {
+        return dictCode;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public String getBatchSql() {
+        return batchSql;
+    }
+
+    public String getCacheKeyPrefix() {
+        return cacheKeyPrefix;
+    }
+}
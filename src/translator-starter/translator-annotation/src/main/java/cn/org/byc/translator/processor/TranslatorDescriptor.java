@@ -0,0 +1,46 @@
+package cn.org.byc.translator.processor;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 编译期由TranslatorProcessor为每个带转译注解的类生成的转译信息，
+ * 运行时TranslatorHelper优先使用它，省去内省和反射
+ */
+public interface TranslatorDescriptor {
+
+    /**
+     * 生成类的类名后缀，生成类与被转译类在同一个包下，类名为被转译类的binary name加此后缀
+     */
+    String SUFFIX = "$$TranslatorDescriptor";
+
+    /**
+     * 被转译的类
+     *
+     * @return
+     */
+    Class<?> type();
+
+    /**
+     * 本类声明的转译字段，不含父类
+     *
+     * @return
+     */
+    List<FieldDescriptor> translatorFields();
+
+    /**
+     * 本类声明的需要进一步转译的嵌套字段、容器字段的getter，不含父类
+     *
+     * @return
+     */
+    List<Function<Object, Object>> nestedGetters();
+
+    /**
+     * 与nestedGetters一一对应的字段名，运行时据此读取字段的泛型类型，判断是否需要遍历
+     *
+     * @return
+     */
+    default List<String> nestedFieldNames() {
+        return List.of();
+    }
+}
@@ -0,0 +1,407 @@
+package cn.org.byc.translator.processor;
+
+import cn.org.byc.translator.annotation.TranslatorField;
+import cn.org.byc.translator.annotation.TranslatorNested;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.MirroredTypeException;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 编译期为带@TranslatorField/@TranslatorNested的类生成TranslatorDescriptor实现，
+ * 直接调用getter/setter，sql和缓存Key前缀在编译期确定。关联字段不存在等问题在编译期以警告报出，
+ * 不中断编译，该类不生成转译信息，运行时使用反射。可通过编译参数-Atranslator.generate=false关闭
+ */
+@SupportedAnnotationTypes({
+        "cn.org.byc.translator.annotation.TranslatorField",
+        "cn.org.byc.translator.annotation.TranslatorNested"})
+@SupportedOptions(TranslatorProcessor.OPTION_GENERATE)
+public class TranslatorProcessor extends AbstractProcessor {
+
+    static final String OPTION_GENERATE = "translator.generate";
+
+    private static final Set<String> LOMBOK_GETTER = Set.of("lombok.Data", "lombok.Getter", "lombok.Value");
+
+    private static final Set<String> LOMBOK_SETTER = Set.of("lombok.Data", "lombok.Setter");
+
+    private final Set<String> generated = new LinkedHashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if ("false".equalsIgnoreCase(processingEnv.getOptions().get(OPTION_GENERATE))) {
+            return false;
+        }
+
+        Set<TypeElement> types = new LinkedHashSet<>();
+        for (Element element : roundEnv.getElementsAnnotatedWith(TranslatorField.class)) {
+            types.add((TypeElement) element.getEnclosingElement());
+        }
+        for (Element element : roundEnv.getElementsAnnotatedWith(TranslatorNested.class)) {
+            types.add((TypeElement) element.getEnclosingElement());
+        }
+        for (TypeElement type : types) {
+            String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+            if (generated.add(binaryName)) {
+                generate(type, binaryName);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 为一个类生成转译信息，类不可访问或字段无法直接读写时不生成，运行时退化为反射
+     *
+     * @param type
+     * @param binaryName
+     */
+    private void generate(TypeElement type, String binaryName) {
+        if (!isAccessible(type)) {
+            note(type, "类型不可从同包访问，运行时使用反射转译");
+            return;
+        }
+
+        Map<String, VariableElement> allFieldMap = new LinkedHashMap<>();
+        for (TypeElement t = type; t != null; t = superclass(t)) {
+            for (VariableElement field : ElementFilter.fieldsIn(t.getEnclosedElements())) {
+                allFieldMap.putIfAbsent(field.getSimpleName().toString(), field);
+            }
+        }
+
+        String typeName = type.getQualifiedName().toString();
+        String target = "((" + typeName + ") o)";
+        List<String> fieldCodeList = new ArrayList<>();
+        List<String> nestedCodeList = new ArrayList<>();
+        List<String> nestedNameList = new ArrayList<>();
+        boolean ok = true;
+
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            String fieldName = field.getSimpleName().toString();
+            TranslatorField transField = field.getAnnotation(TranslatorField.class);
+            if (transField != null) {
+                String dictCode = transField.dictCode();
+                String sql = transField.sql();
+                TypeMirror enumType = enumType(transField);
+                if (enumType != null && !(enumType instanceof DeclaredType declaredType
+                        && declaredType.asElement().getKind() == ElementKind.ENUM)) {
+                    warning(field, String.format("转译字段:%s的enumType不是枚举，该类不生成转译信息", fieldName));
+                    ok = false;
+                    continue;
+                }
+                if (isEmpty(dictCode) && isEmpty(sql) && enumType == null && isEmpty(transField.source())) {
+                    warning(field, String.format("转译字段:%s未指定查询方式，该类不生成转译信息", fieldName));
+                    ok = false;
+                    continue;
+                }
+                if (!processingEnv.getTypeUtils().isAssignable(
+                        processingEnv.getElementUtils().getTypeElement("java.lang.String").asType(), field.asType())) {
+                    warning(field, String.format("转译字段:%s的类型不能接收String，该类不生成转译信息", fieldName));
+                    ok = false;
+                    continue;
+                }
+
+                List<String> getterCodeList = new ArrayList<>();
+                for (String associateFieldName : transField.associateField()) {
+                    VariableElement associateField = allFieldMap.get(associateFieldName);
+                    if (associateField == null) {
+                        warning(field, String.format("转译字段:%s的关联字段:%s不存在，该类不生成转译信息", fieldName, associateFieldName));
+                        ok = false;
+                        continue;
+                    }
+                    String readCode = readCode(type, associateField, target);
+                    if (readCode == null) {
+                        note(field, String.format("关联字段:%s没有可访问的getter，运行时使用反射转译", associateFieldName));
+                        return;
+                    }
+                    getterCodeList.add("o -> " + readCode);
+                }
+                String writeCode = writeCode(type, field, target,
+                        "(" + processingEnv.getTypeUtils().erasure(field.asType()) + ") v");
+                if (writeCode == null) {
+                    note(field, String.format("转译字段:%s没有可访问的setter，运行时使用反射转译", fieldName));
+                    return;
+                }
+
+                String batchSql = transField.batchSql();
+                String cacheKeyPrefix = transField.cacheKeyPrefix();
+                if (!isEmpty(dictCode)) {
+                    // 与运行时注册的缓存Key前缀保持一致
+                    if (isEmpty(cacheKeyPrefix)) {
+                        cacheKeyPrefix = isEng(fieldName) ? "dict:" + dictCode + ":" : "dict:eng:" + dictCode + ":";
+                    }
+                } else {
+                    String[] sqlTemplateParam = transField.sqlTemplateParam();
+                    if (sqlTemplateParam.length > 0) {
+                        sql = MessageFormat.format(sql, (Object[]) sqlTemplateParam);
+                        if (!isEmpty(batchSql)) {
+                            batchSql = MessageFormat.format(batchSql, (Object[]) sqlTemplateParam);
+                        }
+                    }
+                }
+
+                fieldCodeList.add("new " + FieldDescriptor.class.getName() + "(" + literal(fieldName) + ",\n"
+                        + "                    java.util.List.of(" + String.join(", ", getterCodeList) + "),\n"
+                        + "                    (o, v) -> " + writeCode + ",\n"
+                        + "                    " + literal(dictCode) + ",\n"
+                        + "                    " + literal(sql) + ",\n"
+                        + "                    " + literal(batchSql) + ",\n"
+                        + "                    " + literal(cacheKeyPrefix) + ")");
+            } else if (field.getAnnotation(TranslatorNested.class) != null || isContainer(field.asType())) {
+                String readCode = readCode(type, field, target);
+                if (readCode == null) {
+                    note(field, String.format("嵌套字段:%s没有可访问的getter，运行时使用反射转译", fieldName));
+                    return;
+                }
+                nestedCodeList.add("o -> " + readCode);
+                nestedNameList.add(literal(fieldName));
+            }
+        }
+        if (!ok) {
+            return;
+        }
+
+        String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        String simpleName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1))
+                + TranslatorDescriptor.SUFFIX;
+        try (Writer writer = processingEnv.getFiler().createSourceFile(binaryName + TranslatorDescriptor.SUFFIX, type).openWriter()) {
+            if (!packageName.isEmpty()) {
+                writer.write("package " + packageName + ";\n\n");
+            }
+            writer.write("@javax.annotation.processing.Generated(\"" + TranslatorProcessor.class.getName() + "\")\n");
+            writer.write("@SuppressWarnings({\"rawtypes\", \"unchecked\"})\n");
+            writer.write("public final class " + simpleName + " implements " + TranslatorDescriptor.class.getName() + " {\n\n");
+            writer.write("    private static final java.util.List<" + FieldDescriptor.class.getName() + "> TRANSLATOR_FIELDS = java.util.List.of(\n");
+            writer.write("            " + String.join(",\n            ", fieldCodeList) + ");\n\n");
+            writer.write("    private static final java.util.List<java.util.function.Function<Object, Object>> NESTED_GETTERS = java.util.List.of(\n");
+            writer.write("            " + String.join(",\n            ", nestedCodeList) + ");\n\n");
+            writer.write("    private static final java.util.List<String> NESTED_FIELD_NAMES = java.util.List.of(\n");
+            writer.write("            " + String.join(",\n            ", nestedNameList) + ");\n\n");
+            writer.write("    @Override\n");
+            writer.write("    public Class<?> type() {\n");
+            writer.write("        return " + typeName + ".class;\n");
+            writer.write("    }\n\n");
+            writer.write("    @Override\n");
+            writer.write("    public java.util.List<" + FieldDescriptor.class.getName() + "> translatorFields() {\n");
+            writer.write("        return TRANSLATOR_FIELDS;\n");
+            writer.write("    }\n\n");
+            writer.write("    @Override\n");
+            writer.write("    public java.util.List<java.util.function.Function<Object, Object>> nestedGetters() {\n");
+            writer.write("        return NESTED_GETTERS;\n");
+            writer.write("    }\n\n");
+            writer.write("    @Override\n");
+            writer.write("    public java.util.List<String> nestedFieldNames() {\n");
+            writer.write("        return NESTED_FIELD_NAMES;\n");
+            writer.write("    }\n");
+            writer.write("}\n");
+        } catch (IOException e) {
+            warning(type, "生成转译信息失败，运行时使用反射转译:" + e.getMessage());
+        }
+    }
+
+    /**
+     * 读取字段的代码：优先getter，其次同包可见的字段
+     */
+    private String readCode(TypeElement type, VariableElement field, String target) {
+        String fieldName = field.getSimpleName().toString();
+        String getterName = (field.asType().getKind() == TypeKind.BOOLEAN ? "is" : "get") + capitalize(fieldName);
+        if (hasMethod(type, getterName, 0) || hasLombok(field, LOMBOK_GETTER)) {
+            return target + "." + getterName + "()";
+        }
+        if (isFieldAccessible(type, field)) {
+            return target + "." + fieldName;
+        }
+        return null;
+    }
+
+    /**
+     * 写入字段的代码：只使用setter，与运行时要求写方法一致
+     */
+    private String writeCode(TypeElement type, VariableElement field, String target, String value) {
+        String setterName = "set" + capitalize(field.getSimpleName().toString());
+        if (hasMethod(type, setterName, 1) || hasLombok(field, LOMBOK_SETTER)) {
+            return target + "." + setterName + "(" + value + ")";
+        }
+        return null;
+    }
+
+    private boolean hasMethod(TypeElement type, String name, int parameterCount) {
+        for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type))) {
+            if (method.getSimpleName().contentEquals(name)
+                    && method.getParameters().size() == parameterCount
+                    && !method.getModifiers().contains(Modifier.STATIC)
+                    && isMemberAccessible(type, method)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * lombok在其他注解处理器之后才生成方法时，按lombok的注解判断getter/setter是否存在
+     */
+    private boolean hasLombok(VariableElement field, Set<String> lombokAnnotations) {
+        if (field.getModifiers().contains(Modifier.STATIC)) {
+            return false;
+        }
+        for (Element element = field; element instanceof VariableElement || element instanceof TypeElement;
+             element = element.getEnclosingElement()) {
+            for (AnnotationMirror annotationMirror : element.getAnnotationMirrors()) {
+                TypeElement annotationType = (TypeElement) annotationMirror.getAnnotationType().asElement();
+                if (lombokAnnotations.contains(annotationType.getQualifiedName().toString())) {
+                    return true;
+                }
+            }
+            if (element instanceof TypeElement) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    private boolean isFieldAccessible(TypeElement type, VariableElement field) {
+        return !field.getModifiers().contains(Modifier.STATIC) && isMemberAccessible(type, field);
+    }
+
+    /**
+     * 生成类与type同包，public成员或同包的非private成员可以访问
+     */
+    private boolean isMemberAccessible(TypeElement type, Element member) {
+        Set<Modifier> modifiers = member.getModifiers();
+        if (modifiers.contains(Modifier.PUBLIC)) {
+            return true;
+        }
+        return !modifiers.contains(Modifier.PRIVATE)
+                && processingEnv.getElementUtils().getPackageOf(member)
+                .equals(processingEnv.getElementUtils().getPackageOf(type));
+    }
+
+    private boolean isAccessible(TypeElement type) {
+        for (Element element = type; element instanceof TypeElement; element = element.getEnclosingElement()) {
+            TypeElement typeElement = (TypeElement) element;
+            if (typeElement.getModifiers().contains(Modifier.PRIVATE)
+                    || typeElement.getNestingKind() == NestingKind.LOCAL
+                    || typeElement.getNestingKind() == NestingKind.ANONYMOUS) {
+                return false;
+            }
+        }
+        return type.getKind() == ElementKind.CLASS;
+    }
+
+    /**
+     * 容器类型：Collection、Map、Optional和对象数组，与运行时的判断一致
+     */
+    private boolean isContainer(TypeMirror typeMirror) {
+        if (typeMirror.getKind() == TypeKind.ARRAY) {
+            return !((ArrayType) typeMirror).getComponentType().getKind().isPrimitive();
+        }
+        TypeMirror erasure = processingEnv.getTypeUtils().erasure(typeMirror);
+        return processingEnv.getTypeUtils().isAssignable(erasure, erasure("java.util.Collection"))
+                || processingEnv.getTypeUtils().isAssignable(erasure, erasure("java.util.Map"))
+                || processingEnv.getTypeUtils().isAssignable(erasure, erasure("java.util.Optional"));
+    }
+
+    private TypeMirror erasure(String typeName) {
+        return processingEnv.getTypeUtils().erasure(processingEnv.getElementUtils().getTypeElement(typeName).asType());
+    }
+
+    private TypeElement superclass(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        TypeElement superType = (TypeElement) ((DeclaredType) superclass).asElement();
+        return "java.lang.Object".equals(superType.getQualifiedName().toString()) ? null : superType;
+    }
+
+    /**
+     * 约定：如果字段名以enName或engName结尾（不区分大小写)则使用字典的英文名
+     */
+    private static boolean isEng(String fieldName) {
+        String lowerCase = fieldName.toLowerCase();
+        return lowerCase.endsWith("enname") || lowerCase.endsWith("engname");
+    }
+
+    private static String capitalize(String s) {
+        return s.isEmpty() ? s : Character.toUpperCase(s.charAt(0)) + s.substring(1);
+    }
+
+    /**
+     * 编译期读取Class类型的注解属性会抛出MirroredTypeException，从中取类型
+     *
+     * @return 未指定时返回null
+     */
+    private static TypeMirror enumType(TranslatorField transField) {
+        try {
+            transField.enumType();
+            return null;
+        } catch (MirroredTypeException e) {
+            return e.getTypeMirror().getKind() == TypeKind.VOID ? null : e.getTypeMirror();
+        }
+    }
+
+    private static boolean isEmpty(String s) {
+        return s == null || "".equals(s.trim());
+    }
+
+    private static String literal(String s) {
+        StringBuilder sb = new StringBuilder("\"");
+        for (char c : s.toCharArray()) {
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20 || c > 0x7e) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    /**
+     * 转译注解用法有误时只警告，不中断使用方的编译，运行时按反射注册时同样会记录错误
+     */
+    private void warning(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, message, element);
+    }
+
+    private void note(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, message, element);
+    }
+}
@@ -0,0 +1,49 @@
+package cn.org.byc.translator.aspect;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Mono/Flux返参的转译，只在classpath中存在reactor时使用。
+ * 转译会查缓存和数据库，切换到boundedElastic执行，不阻塞事件循环线程
+ */
+final class ReactiveTranslator {
+
+    /**
+     * Flux攒批的最长等待时间，元素产生较慢时不必等满一个窗口
+     */
+    private static final Duration WINDOW_TIMEOUT = Duration.ofMillis(100);
+
+    private ReactiveTranslator() {
+    }
+
+    static boolean isReactive(Object result) {
+        return result instanceof Mono || result instanceof Flux;
+    }
+
+    /**
+     * @param result
+     * @param translator 转译一个元素或一个窗口
+     * @param windowSize Flux每个窗口的元素数
+     * @return
+     */
+    static Object translate(Object result, Consumer<Object> translator, int windowSize) {
+        if (result instanceof Mono<?> mono) {
+            return mono.publishOn(Schedulers.boundedElastic())
+                    .doOnNext(translator);
+        }
+        // Flux按窗口攒批转译，同一窗口内的key一次批量查询
+        Flux<?> flux = (Flux<?>) result;
+        return flux.bufferTimeout(windowSize, WINDOW_TIMEOUT)
+                .publishOn(Schedulers.boundedElastic())
+                .concatMapIterable(window -> {
+                    translator.accept(window);
+                    return (List<?>) window;
+                });
+    }
+}
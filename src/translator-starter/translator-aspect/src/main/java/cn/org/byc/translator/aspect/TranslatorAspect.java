@@ -1,26 +1,109 @@
 package cn.org.byc.translator.aspect;
 
+import cn.org.byc.translator.annotation.TranslatorReturn;
 import cn.org.byc.translator.util.TranslatorHelper;
-import org.aspectj.lang.JoinPoint;
-import org.aspectj.lang.annotation.AfterReturning;
+import cn.org.byc.translator.util.TranslatorMetrics;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
+import org.springframework.util.ClassUtils;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 @Aspect
 public class TranslatorAspect {
 
+    private static final boolean REACTOR_PRESENT =
+            ClassUtils.isPresent("reactor.core.publisher.Flux", TranslatorAspect.class.getClassLoader());
+
     private final TranslatorHelper translatorHelper;
 
+    private final TranslatorMetrics metrics;
+
+    /**
+     * 异步返参的转译执行器，为null时在完成异步任务的线程转译
+     */
+    private final Executor asyncExecutor;
+
     public TranslatorAspect(TranslatorHelper translatorHelper) {
+        this(translatorHelper, null);
+    }
+
+    public TranslatorAspect(TranslatorHelper translatorHelper, TranslatorMetrics metrics) {
+        this(translatorHelper, metrics, null);
+    }
+
+    public TranslatorAspect(TranslatorHelper translatorHelper, TranslatorMetrics metrics, Executor asyncExecutor) {
         this.translatorHelper = translatorHelper;
+        this.metrics = metrics == null ? TranslatorMetrics.NOOP : metrics;
+        this.asyncExecutor = asyncExecutor;
     }
 
     @Pointcut("@annotation(cn.org.byc.translator.annotation.TranslatorReturn)")
     private void pointCut() {
     }
 
-    @AfterReturning(value = "pointCut()", returning = "result")
-    public void doAfter(JoinPoint joinPoint, Object result) {
-        translatorHelper.startTrans(result);
+    /**
+     * 异步、响应式和Stream返参在完成或消费时转译，不阻塞调用线程，其余返参直接转译。
+     * 异步返参在asyncExecutor中转译
+     *
+     * @param joinPoint
+     * @param translatorReturn
+     * @return
+     * @throws Throwable
+     */
+    @Around("pointCut() && @annotation(translatorReturn)")
+    public Object doAround(ProceedingJoinPoint joinPoint, TranslatorReturn translatorReturn) throws Throwable {
+        Object result = joinPoint.proceed();
+        long timeout = translatorReturn.timeout() >= 0 ? translatorReturn.timeout() : translatorHelper.getTimeout();
+        Set<String> groups = Set.copyOf(Arrays.asList(translatorReturn.groups()));
+        Consumer<Object> translator = translator(joinPoint, timeout, groups);
+        if (result instanceof CompletionStage<?> completionStage) {
+            // 转译会查缓存和数据库，不在完成异步任务的线程(如IO事件循环线程)上执行
+            Function<Object, Object> translateValue = value -> {
+                translator.accept(value);
+                return value;
+            };
+            return asyncExecutor == null
+                    ? completionStage.thenApply(translateValue)
+                    : completionStage.thenApplyAsync(translateValue, asyncExecutor);
+        }
+        if (result instanceof Stream<?> stream) {
+            return translatorHelper.startTransStream(stream, timeout, groups);
+        }
+        if (REACTOR_PRESENT && ReactiveTranslator.isReactive(result)) {
+            return ReactiveTranslator.translate(result, translator, translatorHelper.getWindowSize());
+        }
+        translator.accept(result);
+        return result;
+    }
+
+    /**
+     * 开启指标时按方法记录转译耗时
+     *
+     * @param joinPoint
+     * @param timeout   转译的时限，单位为毫秒
+     * @param groups    只转译这些分组的字段，为空时转译所有字段
+     * @return
+     */
+    private Consumer<Object> translator(ProceedingJoinPoint joinPoint, long timeout, Set<String> groups) {
+        if (!metrics.isEnabled()) {
+            return value -> translatorHelper.startTrans(value, timeout, groups);
+        }
+        Signature signature = joinPoint.getSignature();
+        String method = signature.getDeclaringType().getSimpleName() + "." + signature.getName();
+        return value -> {
+            long start = System.nanoTime();
+            translatorHelper.startTrans(value, timeout, groups);
+            metrics.recordTranslation(method, System.nanoTime() - start);
+        };
     }
 }
@@ -0,0 +1,43 @@
+package cn.org.byc.translator.config;
+
+import cn.org.byc.translator.util.DictionaryStore;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.AutoConfigureBefore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+@EnableConfigurationProperties(TranslatorAspectProperties.class)
+@ConditionalOnProperty(prefix = "cn.org.byc.translator.dict-preload", name = "enabled", havingValue = "true")
+@AutoConfigureBefore({TranslatorAspectAutoConfigWithRedisCache.class, TranslatorAspectAutoConfigWithCaffeineCache.class})
+public class DictionaryStoreConfig {
+
+    private final TranslatorAspectProperties translatorAspectProperties;
+
+    public DictionaryStoreConfig(TranslatorAspectProperties translatorAspectProperties) {
+        this.translatorAspectProperties = translatorAspectProperties;
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnMissingBean
+    @ConditionalOnBean({DataSource.class})
+    public DictionaryStore translatorDictionaryStore(DataSource dataSource,
+                                                     @Qualifier(TranslatorDataSources.BEAN_NAME)
+                                                     ObjectProvider<DataSource> translatorDataSource) {
+        TranslatorAspectProperties.DictPreload dictPreload = translatorAspectProperties.getDictPreload();
+        DictionaryStore dictionaryStore = new DictionaryStore(
+                TranslatorDataSources.select(dataSource, translatorDataSource),
+                dictPreload.getQuerySql(),
+                dictPreload.getDictCodes(),
+                dictPreload.getUpdateTimeColumn());
+        dictionaryStore.start(dictPreload.getRefreshInterval(), dictPreload.getFullReloadInterval());
+        return dictionaryStore;
+    }
+}
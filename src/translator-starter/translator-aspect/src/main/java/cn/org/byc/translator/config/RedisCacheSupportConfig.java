@@ -1,14 +1,34 @@
 package cn.org.byc.translator.config;
 
+import cn.org.byc.translator.util.NearCacheSupport;
 import cn.org.byc.translator.util.TranslatorHelper;
+import cn.org.byc.translator.util.TranslatorMetrics;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.util.StringUtils;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
@@ -18,6 +38,11 @@ import java.util.concurrent.TimeUnit;
 @EnableConfigurationProperties(TranslatorAspectProperties.class)
 public class RedisCacheSupportConfig {
 
+    /**
+     * 按前缀清除时每批SCAN、DEL的key数量
+     */
+    private static final int EVICT_BATCH_SIZE = 500;
+
     private final TranslatorAspectProperties translatorAspectProperties;
 
     public RedisCacheSupportConfig(TranslatorAspectProperties translatorAspectProperties){
@@ -25,16 +50,87 @@ public class RedisCacheSupportConfig {
     }
 
     @Bean(name = "translatorRedisCacheSupport")
-    public TranslatorHelper.CacheSupport translatorRedisCacheSupport(RedisTemplate redisTemplate){
+    public TranslatorHelper.CacheSupport translatorRedisCacheSupport(RedisTemplate<?, ?> redisTemplate,
+                                                                     ObjectProvider<TranslatorMetrics> metrics){
+        RedisTemplate<Object, Object> objectRedisTemplate = objectOperations(redisTemplate);
+        TranslatorAspectProperties.RedisHash redisHashProperties = translatorAspectProperties.getRedisHash();
+        TranslatorHelper.CacheSupport redisCacheSupport = redisHashProperties.isEnabled()
+                ? new RedisHashCacheSupport(objectRedisTemplate, redisHashProperties.getSeparator(), translatorAspectProperties)
+                : redisCacheSupport(objectRedisTemplate);
+        TranslatorAspectProperties.NearCache nearCacheProperties = translatorAspectProperties.getNearCache();
+        if (!nearCacheProperties.isEnabled()) {
+            return redisCacheSupport;
+        }
+
+        TranslatorMetrics translatorMetrics = metrics.getIfAvailable();
+        Caffeine<Object, Object> builder = Caffeine.newBuilder();
+        if (translatorMetrics != null && translatorMetrics.isEnabled()) {
+            builder.recordStats();
+        }
+        Cache<String, String> nearCache = builder
+                .expireAfterWrite(nearCacheProperties.getExpireTime(), TimeUnit.MINUTES)
+                .maximumSize(nearCacheProperties.getMaximumSize())
+                .build();
+        if (translatorMetrics != null) {
+            translatorMetrics.monitorCache("translator-near", nearCache);
+        }
+        byte[] channel = nearCacheProperties.getChannel().getBytes(StandardCharsets.UTF_8);
+        return new NearCacheSupport(nearCache, redisCacheSupport, message ->
+                objectRedisTemplate.execute((RedisCallback<Long>) connection ->
+                        connection.publish(channel, message.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    /**
+     * 订阅其他实例发出的近端缓存失效消息
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "cn.org.byc.translator.near-cache", name = "enabled", havingValue = "true")
+    public RedisMessageListenerContainer translatorNearCacheListenerContainer(
+            RedisTemplate<?, ?> redisTemplate,
+            @Qualifier("translatorRedisCacheSupport") TranslatorHelper.CacheSupport translatorRedisCacheSupport) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisTemplate.getConnectionFactory());
+        if (translatorRedisCacheSupport instanceof NearCacheSupport nearCacheSupport) {
+            container.addMessageListener((message, pattern) ->
+                            nearCacheSupport.onInvalidationMessage(new String(message.getBody(), StandardCharsets.UTF_8)),
+                    new ChannelTopic(translatorAspectProperties.getNearCache().getChannel()));
+        }
+        return container;
+    }
+
+    /**
+     * 转义SCAN的MATCH模式中的特殊字符
+     */
+    static String escapePattern(String cacheKeyPrefix) {
+        StringBuilder builder = new StringBuilder(cacheKeyPrefix.length() + 4);
+        for (char c : cacheKeyPrefix.toCharArray()) {
+            if (c == '*' || c == '?' || c == '[' || c == ']' || c == '\\') {
+                builder.append('\\');
+            }
+            builder.append(c);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 使用方配置的RedisTemplate泛型参数不确定，key和值统一按Object读写(实际都是String)
+     */
+    @SuppressWarnings("unchecked")
+    static <T extends RedisOperations<Object, Object>> T objectOperations(RedisOperations<?, ?> operations) {
+        return (T) operations;
+    }
+
+    private TranslatorHelper.CacheSupport redisCacheSupport(RedisTemplate<Object, Object> redisTemplate) {
         return new TranslatorHelper.CacheSupport() {
             @Override
             public void put(String cacheKey, String cacheValue) {
-                redisTemplate.opsForValue().set(cacheKey, cacheValue, translatorAspectProperties.getCacheExpireTime(), TimeUnit.MINUTES);
+                redisTemplate.opsForValue().set(cacheKey, nullToMarker(cacheValue), expireTime(cacheValue), TimeUnit.MINUTES);
             }
 
             @Override
             public Optional<String> get(String cacheKey) {
-                if (StringUtils.hasText(cacheKey) && redisTemplate.hasKey(cacheKey)) {
+                if (StringUtils.hasText(cacheKey)) {
+                    // 直接GET，key不存在时返回null，省去一次hasKey的网络往返
                     Object value = redisTemplate.opsForValue().get(cacheKey);
                     return value == null ? Optional.empty() : Optional.of(value.toString());
                 } else {
@@ -42,10 +138,80 @@ public class RedisCacheSupportConfig {
                 }
             }
 
+            @Override
+            public Map<String, String> getAll(Collection<String> cacheKeys) {
+                // MGET一次取回所有key
+                List<String> keyList = new ArrayList<>(cacheKeys);
+                List<?> valueList = redisTemplate.opsForValue().multiGet(Collections.unmodifiableCollection(keyList));
+                Map<String, String> result = new HashMap<>(keyList.size() * 2);
+                if (valueList != null) {
+                    for (int i = 0; i < keyList.size() && i < valueList.size(); i++) {
+                        Object value = valueList.get(i);
+                        if (value != null) {
+                            result.put(keyList.get(i), value.toString());
+                        }
+                    }
+                }
+                return result;
+            }
+
+            @Override
+            public void putAll(Map<String, String> cacheValues) {
+                // 管道批量执行SET ... EX
+                redisTemplate.executePipelined(new SessionCallback<Object>() {
+                    @Override
+                    public <K, V> Object execute(RedisOperations<K, V> operations) {
+                        RedisOperations<Object, Object> objectOperations = objectOperations(operations);
+                        cacheValues.forEach((cacheKey, cacheValue) -> objectOperations.opsForValue()
+                                .set(cacheKey, nullToMarker(cacheValue), expireTime(cacheValue), TimeUnit.MINUTES));
+                        return null;
+                    }
+                });
+            }
+
+            @Override
+            public void evict(Collection<String> cacheKeys) {
+                redisTemplate.delete(Collections.<Object>unmodifiableCollection(cacheKeys));
+            }
+
+            /**
+             * SCAN匹配前缀后分批DEL，不阻塞redis，需要key使用字符串序列化
+             */
+            @Override
+            public void evictByPrefix(String cacheKeyPrefix) {
+                ScanOptions scanOptions = ScanOptions.scanOptions()
+                        .match(escapePattern(cacheKeyPrefix) + "*")
+                        .count(EVICT_BATCH_SIZE)
+                        .build();
+                List<Object> keyList = new ArrayList<>(EVICT_BATCH_SIZE);
+                try (Cursor<Object> cursor = redisTemplate.scan(scanOptions)) {
+                    while (cursor.hasNext()) {
+                        keyList.add(cursor.next());
+                        if (keyList.size() == EVICT_BATCH_SIZE) {
+                            redisTemplate.delete(keyList);
+                            keyList.clear();
+                        }
+                    }
+                }
+                if (!keyList.isEmpty()) {
+                    redisTemplate.delete(keyList);
+                }
+            }
+
             @Override
             public boolean isLocalCache() {
                 return false;
             }
+
+            private String nullToMarker(String cacheValue) {
+                return cacheValue == null ? NULL_VALUE : cacheValue;
+            }
+
+            private long expireTime(String cacheValue) {
+                return cacheValue == null || NULL_VALUE.equals(cacheValue)
+                        ? translatorAspectProperties.getNegativeCacheExpireTime()
+                        : translatorAspectProperties.getCacheExpireTime();
+            }
         };
     }
 }
@@ -0,0 +1,270 @@
+package cn.org.byc.translator.config;
+
+import cn.org.byc.translator.util.TranslatorHelper;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 每个缓存key前缀(字典、转译器)存为一个redis hash：cacheKey按最后一个分隔符拆成hash的key和field，
+ * 如dict:card:01存为hash dict:card:的field 01。相比每个值一个key，key的数量和内存开销小得多，
+ * 一个字典整体过期、整体清除。
+ * <p>
+ * hash的失效时间在第一次写入时设置，之后的写入不延长；负缓存写在同一个hash中，值带上自己的过期时刻，读到过期的视为未命中
+ */
+class RedisHashCacheSupport implements TranslatorHelper.CacheSupport {
+
+    /**
+     * 按前缀清除时每批SCAN、DEL的数量
+     */
+    private static final int EVICT_BATCH_SIZE = 500;
+
+    /**
+     * 负缓存的值为此前缀加过期时刻(毫秒)
+     */
+    private static final String NULL_VALUE_PREFIX = NULL_VALUE + "@";
+
+    /**
+     * 写入field，hash没有失效时间(新建)时设置失效时间，已有的不延长。KEYS[1]为hash，ARGV[1]为失效秒数，之后依次为field和值
+     */
+    private static final byte[] PUT_SCRIPT = ("""
+            for i = 2, #ARGV, 2 do
+                redis.call('HSET', KEYS[1], ARGV[i], ARGV[i + 1])
+            end
+            if redis.call('TTL', KEYS[1]) < 0 then
+                redis.call('EXPIRE', KEYS[1], ARGV[1])
+            end
+            return 0
+            """).getBytes(StandardCharsets.UTF_8);
+
+    private final RedisTemplate<Object, Object> redisTemplate;
+
+    private final String separator;
+
+    private final TranslatorAspectProperties translatorAspectProperties;
+
+    /**
+     * @param redisTemplate
+     * @param separator                  cacheKey中前缀与值之间的分隔符，按最后一个分隔符拆分
+     * @param translatorAspectProperties 读取缓存失效时间
+     */
+    RedisHashCacheSupport(RedisTemplate<Object, Object> redisTemplate, String separator,
+                          TranslatorAspectProperties translatorAspectProperties) {
+        this.redisTemplate = redisTemplate;
+        this.separator = separator;
+        this.translatorAspectProperties = translatorAspectProperties;
+    }
+
+    @Override
+    public void put(String cacheKey, String cacheValue) {
+        Map<String, String> cacheValues = new HashMap<>(2);
+        cacheValues.put(cacheKey, cacheValue);
+        putAll(cacheValues);
+    }
+
+    @Override
+    public Optional<String> get(String cacheKey) {
+        return Optional.ofNullable(getAll(List.of(cacheKey)).get(cacheKey));
+    }
+
+    /**
+     * 管道中每个hash一次HMGET
+     */
+    @Override
+    public Map<String, String> getAll(Collection<String> cacheKeys) {
+        Map<String, List<String>> fieldMap = groupByHash(cacheKeys);
+        List<String> hashKeyList = new ArrayList<>(fieldMap.keySet());
+        List<Object> resultList = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<Object, Object> objectOperations = RedisCacheSupportConfig.objectOperations(operations);
+                for (String hashKey : hashKeyList) {
+                    objectOperations.opsForHash().multiGet(hashKey, new ArrayList<Object>(fieldMap.get(hashKey)));
+                }
+                return null;
+            }
+        }, redisTemplate.getHashValueSerializer());
+
+        Map<String, String> result = new HashMap<>(cacheKeys.size() * 2);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < hashKeyList.size() && i < resultList.size(); i++) {
+            String hashKey = hashKeyList.get(i);
+            List<String> fieldList = fieldMap.get(hashKey);
+            if (!(resultList.get(i) instanceof List<?> valueList)) {
+                continue;
+            }
+            for (int j = 0; j < fieldList.size() && j < valueList.size(); j++) {
+                String value = fromHashValue(valueList.get(j), now);
+                if (value != null) {
+                    result.put(hashKey + fieldList.get(j), value);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 在管道中对每个hash执行一次PUT_SCRIPT，写入和设置失效时间是原子的
+     */
+    @Override
+    public void putAll(Map<String, String> cacheValues) {
+        Map<String, Map<String, String>> hashMap = new LinkedHashMap<>();
+        long negativeExpireAt = System.currentTimeMillis()
+                + TimeUnit.MINUTES.toMillis(translatorAspectProperties.getNegativeCacheExpireTime());
+        cacheValues.forEach((cacheKey, cacheValue) -> {
+            int index = splitIndex(cacheKey);
+            hashMap.computeIfAbsent(cacheKey.substring(0, index), e -> new HashMap<>())
+                    .put(cacheKey.substring(index), toHashValue(cacheValue, negativeExpireAt));
+        });
+        byte[] expireSeconds = String.valueOf(TimeUnit.MINUTES.toSeconds(translatorAspectProperties.getCacheExpireTime()))
+                .getBytes(StandardCharsets.UTF_8);
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            hashMap.forEach((hashKey, fieldMap) -> {
+                byte[][] keysAndArgs = new byte[2 + fieldMap.size() * 2][];
+                keysAndArgs[0] = serialize(redisTemplate.getKeySerializer(), hashKey);
+                keysAndArgs[1] = expireSeconds;
+                int i = 2;
+                for (Map.Entry<String, String> entry : fieldMap.entrySet()) {
+                    keysAndArgs[i++] = serialize(redisTemplate.getHashKeySerializer(), entry.getKey());
+                    keysAndArgs[i++] = serialize(redisTemplate.getHashValueSerializer(), entry.getValue());
+                }
+                connection.scriptingCommands().eval(PUT_SCRIPT, ReturnType.INTEGER, 1, keysAndArgs);
+            });
+            return null;
+        });
+    }
+
+    @Override
+    public void evict(Collection<String> cacheKeys) {
+        Map<String, List<String>> fieldMap = groupByHash(cacheKeys);
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<Object, Object> objectOperations = RedisCacheSupportConfig.objectOperations(operations);
+                fieldMap.forEach((hashKey, fieldList) -> objectOperations.opsForHash().delete(hashKey, fieldList.toArray()));
+                return null;
+            }
+        });
+    }
+
+    /**
+     * 前缀以分隔符结尾时(字典、转译器的前缀)直接删除对应的hash；
+     * 否则HSCAN前缀所在的hash删除匹配的field。另外SCAN删除名称以前缀开头的hash(值中带分隔符的key)，
+     * SCAN、HSCAN需要key和field使用字符串序列化
+     */
+    @Override
+    public void evictByPrefix(String cacheKeyPrefix) {
+        int index = splitIndex(cacheKeyPrefix);
+        String hashKey = cacheKeyPrefix.substring(0, index);
+        String fieldPrefix = cacheKeyPrefix.substring(index);
+        if (fieldPrefix.isEmpty()) {
+            redisTemplate.delete(hashKey);
+        } else {
+            ScanOptions scanOptions = ScanOptions.scanOptions()
+                    .match(RedisCacheSupportConfig.escapePattern(fieldPrefix) + "*")
+                    .count(EVICT_BATCH_SIZE)
+                    .build();
+            List<Object> fieldList = new ArrayList<>(EVICT_BATCH_SIZE);
+            try (Cursor<Map.Entry<Object, Object>> cursor = redisTemplate.opsForHash().scan(hashKey, scanOptions)) {
+                while (cursor.hasNext()) {
+                    fieldList.add(cursor.next().getKey());
+                    if (fieldList.size() == EVICT_BATCH_SIZE) {
+                        redisTemplate.opsForHash().delete(hashKey, fieldList.toArray());
+                        fieldList.clear();
+                    }
+                }
+            }
+            if (!fieldList.isEmpty()) {
+                redisTemplate.opsForHash().delete(hashKey, fieldList.toArray());
+            }
+        }
+
+        ScanOptions scanOptions = ScanOptions.scanOptions()
+                .match(RedisCacheSupportConfig.escapePattern(cacheKeyPrefix) + "*")
+                .count(EVICT_BATCH_SIZE)
+                .build();
+        List<Object> keyList = new ArrayList<>(EVICT_BATCH_SIZE);
+        try (Cursor<Object> cursor = redisTemplate.scan(scanOptions)) {
+            while (cursor.hasNext()) {
+                keyList.add(cursor.next());
+                if (keyList.size() == EVICT_BATCH_SIZE) {
+                    redisTemplate.delete(keyList);
+                    keyList.clear();
+                }
+            }
+        }
+        if (!keyList.isEmpty()) {
+            redisTemplate.delete(keyList);
+        }
+    }
+
+    @Override
+    public boolean isLocalCache() {
+        return false;
+    }
+
+    /**
+     * hash key的长度：到最后一个分隔符(含)为止，没有分隔符时整个cacheKey为hash key，field为空串
+     */
+    private int splitIndex(String cacheKey) {
+        int index = cacheKey.lastIndexOf(separator);
+        return index < 0 ? cacheKey.length() : index + separator.length();
+    }
+
+    /**
+     * 按模板配置的序列化方式序列化，未配置时按UTF-8
+     */
+    @SuppressWarnings("unchecked")
+    private static byte[] serialize(RedisSerializer<?> serializer, String value) {
+        return serializer == null ? value.getBytes(StandardCharsets.UTF_8) : ((RedisSerializer<Object>) serializer).serialize(value);
+    }
+
+    private Map<String, List<String>> groupByHash(Collection<String> cacheKeys) {
+        Map<String, List<String>> fieldMap = new LinkedHashMap<>();
+        for (String cacheKey : cacheKeys) {
+            int index = splitIndex(cacheKey);
+            fieldMap.computeIfAbsent(cacheKey.substring(0, index), e -> new ArrayList<>())
+                    .add(cacheKey.substring(index));
+        }
+        return fieldMap;
+    }
+
+    private String toHashValue(String cacheValue, long negativeExpireAt) {
+        return cacheValue == null || NULL_VALUE.equals(cacheValue)
+                ? NULL_VALUE_PREFIX + negativeExpireAt
+                : cacheValue;
+    }
+
+    /**
+     * @return 不存在或负缓存已过期时返回null
+     */
+    private String fromHashValue(Object hashValue, long now) {
+        if (hashValue == null) {
+            return null;
+        }
+        String value = hashValue.toString();
+        if (!value.startsWith(NULL_VALUE_PREFIX)) {
+            return value;
+        }
+        try {
+            return Long.parseLong(value.substring(NULL_VALUE_PREFIX.length())) > now ? NULL_VALUE : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -1,19 +1,33 @@
 package cn.org.byc.translator.config;
 
 import cn.org.byc.translator.aspect.TranslatorAspect;
+import cn.org.byc.translator.util.CacheSnapshot;
+import cn.org.byc.translator.util.DictionaryStore;
+import cn.org.byc.translator.util.TranslationSource;
 import cn.org.byc.translator.util.TranslatorHelper;
+import cn.org.byc.translator.util.TranslatorMetrics;
 import cn.org.byc.translator.util.TranslatorHelper.CacheSupport;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Policy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import javax.sql.DataSource;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
 @Configuration
@@ -30,35 +44,153 @@ public class TranslatorAspectAutoConfigWithCaffeineCache {
     @Bean
     @ConditionalOnMissingBean
     @ConditionalOnBean({DataSource.class})
-    public TranslatorHelper translatorHelper(DataSource dataSource) {
-        Cache<String, Optional<String>> cache = Caffeine.newBuilder()
-                .expireAfterWrite(translatorAspectProperties.getCacheExpireTime(), TimeUnit.MINUTES)
+    public TranslatorHelper translatorHelper(DataSource dataSource,
+                                             @Qualifier(TranslatorDataSources.BEAN_NAME)
+                                             ObjectProvider<DataSource> translatorDataSource,
+                                             ObjectProvider<DictionaryStore> dictionaryStore,
+                                             ObjectProvider<CacheSnapshot> cacheSnapshot,
+                                             ObjectProvider<TranslatorMetrics> metrics,
+                                             ObjectProvider<TranslationSource> translationSources,
+                                             @Qualifier(TranslatorExecutorConfig.PARALLEL_EXECUTOR)
+                                             ObjectProvider<Executor> parallelExecutor) {
+        TranslatorMetrics translatorMetrics = metrics.getIfAvailable();
+        long expireNanos = TimeUnit.MINUTES.toNanos(translatorAspectProperties.getCacheExpireTime());
+        long negativeExpireNanos = TimeUnit.MINUTES.toNanos(translatorAspectProperties.getNegativeCacheExpireTime());
+        Caffeine<Object, Object> builder = Caffeine.newBuilder();
+        if (translatorMetrics != null && translatorMetrics.isEnabled()) {
+            builder.recordStats();
+        }
+        Cache<String, String> cache = builder
+                // 负缓存使用较短的失效时间
+                .expireAfter(new Expiry<String, String>() {
+                    @Override
+                    public long expireAfterCreate(String key, String value, long currentTime) {
+                        return CacheSupport.NULL_VALUE.equals(value) ? negativeExpireNanos : expireNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, String value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, String value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
                 .initialCapacity(128)
                 .maximumSize(2048)
                 .build();
+        if (translatorMetrics != null) {
+            translatorMetrics.monitorCache("translator", cache);
+        }
+
+        CacheSnapshot snapshot = cacheSnapshot.getIfAvailable();
+        Policy.VarExpiration<String, String> varExpiration = cache.policy().expireVariably().orElseThrow();
+        if (snapshot != null) {
+            // 负缓存不写入快照
+            snapshot.start(translatorAspectProperties.getSnapshot().getWriteInterval(), () -> {
+                Map<String, String> entries = new HashMap<>(cache.asMap());
+                entries.values().removeIf(CacheSupport.NULL_VALUE::equals);
+                return entries;
+            });
+        }
 
         TranslatorHelper.CacheSupport cacheSupport = new TranslatorHelper.CacheSupport() {
             @Override
             public void put(String cacheKey, String cacheValue) {
-                cache.put(cacheKey, Optional.ofNullable(cacheValue));
+                cache.put(cacheKey, cacheValue == null ? CacheSupport.NULL_VALUE : cacheValue);
             }
 
             @Override
             public Optional<String> get(String cacheKey) {
-                return cache.getIfPresent(cacheKey);
+                String value = cache.getIfPresent(cacheKey);
+                if (value == null && snapshot != null) {
+                    value = snapshot.get(cacheKey);
+                    if (value != null) {
+                        backfill(cacheKey, value);
+                    }
+                }
+                return Optional.ofNullable(value);
+            }
+
+            @Override
+            public Map<String, String> getAll(Collection<String> cacheKeys) {
+                Map<String, String> result = cache.getAllPresent(cacheKeys);
+                if (snapshot == null || result.size() == cacheKeys.size()) {
+                    return result;
+                }
+                // 本地缓存未命中的key从快照读取，命中的值回填缓存，之后同一个key不再查快照，回填的值失效后从数据库加载新值
+                result = new HashMap<>(result);
+                for (String cacheKey : cacheKeys) {
+                    if (!result.containsKey(cacheKey)) {
+                        String value = snapshot.get(cacheKey);
+                        if (value != null) {
+                            result.put(cacheKey, value);
+                            backfill(cacheKey, value);
+                        }
+                    }
+                }
+                return result;
+            }
+
+            @Override
+            public void evict(Collection<String> cacheKeys) {
+                cache.invalidateAll(cacheKeys);
+                invalidateSnapshot();
+            }
+
+            @Override
+            public void evictByPrefix(String cacheKeyPrefix) {
+                cache.asMap().keySet().removeIf(cacheKey -> cacheKey.startsWith(cacheKeyPrefix));
+                invalidateSnapshot();
+            }
+
+            /**
+             * 快照中的值回填缓存，失效时间不超过快照的剩余有效期，值的陈旧程度不超过max-age
+             */
+            private void backfill(String cacheKey, String value) {
+                long remainingNanos = TimeUnit.MILLISECONDS.toNanos(snapshot.remainingMillis());
+                if (remainingNanos > 0) {
+                    varExpiration.put(cacheKey, value, Math.min(remainingNanos, expireNanos), TimeUnit.NANOSECONDS);
+                }
+            }
+
+            private void invalidateSnapshot() {
+                if (snapshot != null) {
+                    snapshot.invalidate();
+                }
             }
         };
 
-        return new TranslatorHelper(dataSource,
-                translatorAspectProperties.getDictQuerySql(),
-                translatorAspectProperties.getDictQuerySqlEng(),
-                cacheSupport);
+        return TranslatorHelperFactory.create(TranslatorDataSources.select(dataSource, translatorDataSource),
+                translatorAspectProperties, cacheSupport,
+                dictionaryStore.getIfAvailable(), translatorMetrics,
+                translationSources.orderedStream().toList(), parallelExecutor.getIfAvailable());
+    }
+
+    /**
+     * 本地缓存的快照，启动时映射已有的快照文件
+     */
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "cn.org.byc.translator.snapshot", name = "enabled", havingValue = "true")
+    public CacheSnapshot translatorCacheSnapshot() {
+        TranslatorAspectProperties.Snapshot properties = translatorAspectProperties.getSnapshot();
+        CacheSnapshot cacheSnapshot = new CacheSnapshot(Paths.get(properties.getPath()),
+                TimeUnit.MINUTES.toMillis(properties.getMaxAge()));
+        cacheSnapshot.open();
+        return cacheSnapshot;
     }
 
     @Bean
     @ConditionalOnMissingBean
     @ConditionalOnBean({TranslatorHelper.class})
-    public TranslatorAspect translatorAspect(TranslatorHelper translatorHelper) {
-        return new TranslatorAspect(translatorHelper);
+    @ConditionalOnProperty(prefix = "cn.org.byc.translator.jackson", name = "enabled", havingValue = "false", matchIfMissing = true)
+    public TranslatorAspect translatorAspect(TranslatorHelper translatorHelper,
+                                             ObjectProvider<TranslatorMetrics> metrics,
+                                             @Qualifier(TranslatorExecutorConfig.ASYNC_EXECUTOR)
+                                             ObjectProvider<Executor> asyncExecutor) {
+        return new TranslatorAspect(translatorHelper, metrics.getIfAvailable(), asyncExecutor.getIfAvailable());
     }
 }
@@ -1,15 +1,22 @@
 package cn.org.byc.translator.config;
 
 import cn.org.byc.translator.aspect.TranslatorAspect;
+import cn.org.byc.translator.util.DictionaryStore;
+import cn.org.byc.translator.util.TranslationSource;
 import cn.org.byc.translator.util.TranslatorHelper;
+import cn.org.byc.translator.util.TranslatorMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
 
 import javax.sql.DataSource;
+import java.util.concurrent.Executor;
 
 @Configuration
 @EnableConfigurationProperties(TranslatorAspectProperties.class)
@@ -27,18 +34,29 @@ public class TranslatorAspectAutoConfigWithRedisCache {
     @ConditionalOnMissingBean
     @ConditionalOnBean({DataSource.class})
     public TranslatorHelper translatorHelper(DataSource dataSource,
-                                             TranslatorHelper.CacheSupport redisCacheSupport) {
-        return new TranslatorHelper(dataSource,
-                translatorAspectProperties.getDictQuerySql(),
-                translatorAspectProperties.getDictQuerySqlEng(),
-                redisCacheSupport);
+                                             @Qualifier(TranslatorDataSources.BEAN_NAME)
+                                             ObjectProvider<DataSource> translatorDataSource,
+                                             TranslatorHelper.CacheSupport redisCacheSupport,
+                                             ObjectProvider<DictionaryStore> dictionaryStore,
+                                             ObjectProvider<TranslatorMetrics> metrics,
+                                             ObjectProvider<TranslationSource> translationSources,
+                                             @Qualifier(TranslatorExecutorConfig.PARALLEL_EXECUTOR)
+                                             ObjectProvider<Executor> parallelExecutor) {
+        return TranslatorHelperFactory.create(TranslatorDataSources.select(dataSource, translatorDataSource),
+                translatorAspectProperties, redisCacheSupport,
+                dictionaryStore.getIfAvailable(), metrics.getIfAvailable(),
+                translationSources.orderedStream().toList(), parallelExecutor.getIfAvailable());
     }
 
 
     @Bean
     @ConditionalOnMissingBean
     @ConditionalOnBean({TranslatorHelper.class})
-    public TranslatorAspect translatorAspect(TranslatorHelper translatorHelper) {
-        return new TranslatorAspect(translatorHelper);
+    @ConditionalOnProperty(prefix = "cn.org.byc.translator.jackson", name = "enabled", havingValue = "false", matchIfMissing = true)
+    public TranslatorAspect translatorAspect(TranslatorHelper translatorHelper,
+                                             ObjectProvider<TranslatorMetrics> metrics,
+                                             @Qualifier(TranslatorExecutorConfig.ASYNC_EXECUTOR)
+                                             ObjectProvider<Executor> asyncExecutor) {
+        return new TranslatorAspect(translatorHelper, metrics.getIfAvailable(), asyncExecutor.getIfAvailable());
     }
 }
@@ -2,6 +2,9 @@ package cn.org.byc.translator.config;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @ConfigurationProperties(prefix = "cn.org.byc.translator")
 public class TranslatorAspectProperties {
 
@@ -12,9 +15,113 @@ public class TranslatorAspectProperties {
     private String dictQuerySqlEng =
             "select dict_eng_display from dict_data where dict_code = '%s' and dict_data_code = ?";
 
+    /**
+     * 字典的批量查询sql，为空则逐个查询。修改了dictQuerySql等字典查询sql时需同时修改，否则不批量查询
+     */
+    private String dictBatchQuerySql =
+            "select dict_data_code, dict_display from dict_data where dict_code = '%s' and dict_data_code in (%s)";
+
+    private String dictBatchQuerySqlEng =
+            "select dict_data_code, dict_eng_display from dict_data where dict_code = '%s' and dict_data_code in (%s)";
+
+    /**
+     * 同时查询中英文显示值，同一个类中字典和关联字段相同的转译器合并为一次查询，为空则不合并。
+     * 修改了dictQuerySql等字典查询sql时需同时修改，否则不合并
+     */
+    private String dictFusedQuerySql =
+            "select dict_display, dict_eng_display from dict_data where dict_code = '%s' and dict_data_code = ?";
+
+    private String dictFusedBatchQuerySql =
+            "select dict_data_code, dict_display, dict_eng_display from dict_data where dict_code = '%s' and dict_data_code in (%s)";
+
+    /**
+     * 批量查询时IN列表的最大长度
+     */
+    private Integer batchSize = 500;
+
+    /**
+     * 返参为Stream、Flux时每个转译窗口的元素数
+     */
+    private Integer windowSize = 500;
+
+    /**
+     * 流式转译时去重缓存最多保留的key数量
+     */
+    private Integer streamDedupMaxSize = 10000;
 
     private Integer cacheExpireTime = 30;
 
+    /**
+     * 负缓存(数据库查不到的值)写入后的失效时间，单位为分钟
+     */
+    private Integer negativeCacheExpireTime = 5;
+
+    /**
+     * 每次转译的时限，单位为毫秒，超过后剩余的key使用过期值或不转译，小于等于0时不限时。
+     * 可以用@TranslatorReturn的timeout按方法指定
+     */
+    private Long timeout = 0L;
+
+    /**
+     * 保留最近一次查到的转译值，超时、熔断或出错时使用
+     */
+    private Stale stale = new Stale();
+
+    /**
+     * 缓存或数据库连续出错后熔断，冷却期内不再调用
+     */
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+    /**
+     * 字典预加载
+     */
+    private DictPreload dictPreload = new DictPreload();
+
+    /**
+     * 使用redis时，在redis前加一层本地近端缓存
+     */
+    private NearCache nearCache = new NearCache();
+
+    /**
+     * 使用redis时，每个缓存key前缀存为一个hash
+     */
+    private RedisHash redisHash = new RedisHash();
+
+    /**
+     * 热点key在缓存失效前提前异步刷新
+     */
+    private RefreshAhead refreshAhead = new RefreshAhead();
+
+    /**
+     * 未命中缓存的key拆分后并行查库
+     */
+    private Parallel parallel = new Parallel();
+
+    /**
+     * 异步返参(CompletionStage)在这个线程池中转译，不占用完成异步任务的线程
+     */
+    private Async async = new Async();
+
+    /**
+     * 使用本地缓存时，定时把缓存写入内存映射的快照文件，重启后用于预热
+     */
+    private Snapshot snapshot = new Snapshot();
+
+    /**
+     * 存在MeterRegistry时采集转译指标
+     */
+    private Metrics metrics = new Metrics();
+
+    /**
+     * Jackson序列化时转译，开启后不再在方法返回后转译
+     */
+    private Jackson jackson = new Jackson();
+
+    /**
+     * 轮询变更日志表清除转译缓存
+     */
+    private ChangeLog changeLog = new ChangeLog();
+
     public String getDictQuerySql() {
         return dictQuerySql;
     }
@@ -31,6 +138,22 @@ public class TranslatorAspectProperties {
         this.dictQuerySqlEng = dictQuerySqlEng;
     }
 
+    public Integer getWindowSize() {
+        return windowSize;
+    }
+
+    public void setWindowSize(Integer windowSize) {
+        this.windowSize = windowSize;
+    }
+
+    public Integer getStreamDedupMaxSize() {
+        return streamDedupMaxSize;
+    }
+
+    public void setStreamDedupMaxSize(Integer streamDedupMaxSize) {
+        this.streamDedupMaxSize = streamDedupMaxSize;
+    }
+
     public Integer getCacheExpireTime() {
         return cacheExpireTime;
     }
@@ -38,4 +161,667 @@ public class TranslatorAspectProperties {
     public void setCacheExpireTime(Integer cacheExpireTime) {
         this.cacheExpireTime = cacheExpireTime;
     }
+
+    public String getDictBatchQuerySql() {
+        return dictBatchQuerySql;
+    }
+
+    public void setDictBatchQuerySql(String dictBatchQuerySql) {
+        this.dictBatchQuerySql = dictBatchQuerySql;
+    }
+
+    public String getDictBatchQuerySqlEng() {
+        return dictBatchQuerySqlEng;
+    }
+
+    public void setDictBatchQuerySqlEng(String dictBatchQuerySqlEng) {
+        this.dictBatchQuerySqlEng = dictBatchQuerySqlEng;
+    }
+
+    public String getDictFusedQuerySql() {
+        return dictFusedQuerySql;
+    }
+
+    public void setDictFusedQuerySql(String dictFusedQuerySql) {
+        this.dictFusedQuerySql = dictFusedQuerySql;
+    }
+
+    public String getDictFusedBatchQuerySql() {
+        return dictFusedBatchQuerySql;
+    }
+
+    public void setDictFusedBatchQuerySql(String dictFusedBatchQuerySql) {
+        this.dictFusedBatchQuerySql = dictFusedBatchQuerySql;
+    }
+
+    public Integer getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(Integer batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Integer getNegativeCacheExpireTime() {
+        return negativeCacheExpireTime;
+    }
+
+    public void setNegativeCacheExpireTime(Integer negativeCacheExpireTime) {
+        this.negativeCacheExpireTime = negativeCacheExpireTime;
+    }
+
+    public Long getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(Long timeout) {
+        this.timeout = timeout;
+    }
+
+    public Stale getStale() {
+        return stale;
+    }
+
+    public void setStale(Stale stale) {
+        this.stale = stale;
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public void setCircuitBreaker(CircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    public DictPreload getDictPreload() {
+        return dictPreload;
+    }
+
+    public void setDictPreload(DictPreload dictPreload) {
+        this.dictPreload = dictPreload;
+    }
+
+    public NearCache getNearCache() {
+        return nearCache;
+    }
+
+    public void setNearCache(NearCache nearCache) {
+        this.nearCache = nearCache;
+    }
+
+    public RedisHash getRedisHash() {
+        return redisHash;
+    }
+
+    public void setRedisHash(RedisHash redisHash) {
+        this.redisHash = redisHash;
+    }
+
+    public RefreshAhead getRefreshAhead() {
+        return refreshAhead;
+    }
+
+    public void setRefreshAhead(RefreshAhead refreshAhead) {
+        this.refreshAhead = refreshAhead;
+    }
+
+    public Parallel getParallel() {
+        return parallel;
+    }
+
+    public void setParallel(Parallel parallel) {
+        this.parallel = parallel;
+    }
+
+    public Async getAsync() {
+        return async;
+    }
+
+    public void setAsync(Async async) {
+        this.async = async;
+    }
+
+    public Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public void setSnapshot(Snapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    public void setMetrics(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public Jackson getJackson() {
+        return jackson;
+    }
+
+    public void setJackson(Jackson jackson) {
+        this.jackson = jackson;
+    }
+
+    public ChangeLog getChangeLog() {
+        return changeLog;
+    }
+
+    public void setChangeLog(ChangeLog changeLog) {
+        this.changeLog = changeLog;
+    }
+
+    public static class DictPreload {
+
+        private boolean enabled = false;
+
+        /**
+         * 查询字典数据的sql，结果列名需为dict_code, dict_data_code, dict_display, dict_eng_display
+         */
+        private String querySql = "select * from dict_data";
+
+        /**
+         * 只预加载这些字典，为空则加载全部
+         */
+        private List<String> dictCodes = new ArrayList<>();
+
+        /**
+         * 更新时间列，配置后增量刷新，否则每次全量刷新
+         */
+        private String updateTimeColumn;
+
+        /**
+         * 刷新间隔，单位为秒，不大于0则不刷新
+         */
+        private Long refreshInterval = 60L;
+
+        /**
+         * 增量刷新时定期全量刷新的间隔，单位为秒，用于清除已删除的字典数据，不大于0则只增量刷新
+         */
+        private Long fullReloadInterval = 3600L;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getQuerySql() {
+            return querySql;
+        }
+
+        public void setQuerySql(String querySql) {
+            this.querySql = querySql;
+        }
+
+        public List<String> getDictCodes() {
+            return dictCodes;
+        }
+
+        public void setDictCodes(List<String> dictCodes) {
+            this.dictCodes = dictCodes;
+        }
+
+        public String getUpdateTimeColumn() {
+            return updateTimeColumn;
+        }
+
+        public void setUpdateTimeColumn(String updateTimeColumn) {
+            this.updateTimeColumn = updateTimeColumn;
+        }
+
+        public Long getRefreshInterval() {
+            return refreshInterval;
+        }
+
+        public void setRefreshInterval(Long refreshInterval) {
+            this.refreshInterval = refreshInterval;
+        }
+
+        public Long getFullReloadInterval() {
+            return fullReloadInterval;
+        }
+
+        public void setFullReloadInterval(Long fullReloadInterval) {
+            this.fullReloadInterval = fullReloadInterval;
+        }
+    }
+
+    public static class NearCache {
+
+        private boolean enabled = false;
+
+        /**
+         * 近端缓存的最大条数
+         */
+        private Long maximumSize = 10000L;
+
+        /**
+         * 近端缓存写入后的失效时间，单位为分钟
+         */
+        private Integer expireTime = 5;
+
+        /**
+         * 失效消息的redis频道
+         */
+        private String channel = "translator:near-cache:invalidate";
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(Long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public Integer getExpireTime() {
+            return expireTime;
+        }
+
+        public void setExpireTime(Integer expireTime) {
+            this.expireTime = expireTime;
+        }
+
+        public String getChannel() {
+            return channel;
+        }
+
+        public void setChannel(String channel) {
+            this.channel = channel;
+        }
+    }
+
+    public static class RedisHash {
+
+        private boolean enabled = false;
+
+        /**
+         * cacheKey中前缀与值之间的分隔符，按最后一个分隔符拆成hash的key和field
+         */
+        private String separator = ":";
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getSeparator() {
+            return separator;
+        }
+
+        public void setSeparator(String separator) {
+            this.separator = separator;
+        }
+    }
+
+    public static class RefreshAhead {
+
+        private boolean enabled = false;
+
+        /**
+         * 加载后经过cacheExpireTime的多少比例再被命中时提前刷新
+         */
+        private Double ratio = 0.8;
+
+        /**
+         * 最多跟踪的key数量
+         */
+        private Long maximumSize = 10000L;
+
+        /**
+         * 异步刷新的线程数
+         */
+        private Integer threads = 2;
+
+        /**
+         * 等待刷新的任务数上限，超出时放弃刷新
+         */
+        private Integer queueCapacity = 1000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Double getRatio() {
+            return ratio;
+        }
+
+        public void setRatio(Double ratio) {
+            this.ratio = ratio;
+        }
+
+        public Long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(Long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public Integer getThreads() {
+            return threads;
+        }
+
+        public void setThreads(Integer threads) {
+            this.threads = threads;
+        }
+
+        public Integer getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(Integer queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+    }
+
+    public static class Parallel {
+
+        private boolean enabled = false;
+
+        /**
+         * 所有请求共用的最大并发查库数
+         */
+        private Integer maxDbConcurrency = 4;
+
+        /**
+         * 等待执行的查询任务数上限，超出时由调用线程自己查库
+         */
+        private Integer queueCapacity = 256;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Integer getMaxDbConcurrency() {
+            return maxDbConcurrency;
+        }
+
+        public void setMaxDbConcurrency(Integer maxDbConcurrency) {
+            this.maxDbConcurrency = maxDbConcurrency;
+        }
+
+        public Integer getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(Integer queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+    }
+
+    public static class Async {
+
+        /**
+         * 转译线程数，默认值:8
+         */
+        private Integer threads = 8;
+
+        /**
+         * 等待转译的异步返参数上限，超出时由完成异步任务的线程转译
+         */
+        private Integer queueCapacity = 1000;
+
+        public Integer getThreads() {
+            return threads;
+        }
+
+        public void setThreads(Integer threads) {
+            this.threads = threads;
+        }
+
+        public Integer getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(Integer queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+    }
+
+    public static class Snapshot {
+
+        private boolean enabled = false;
+
+        /**
+         * 快照文件路径，同一台机器上的实例可以共用
+         */
+        private String path = System.getProperty("java.io.tmpdir") + "/translator-cache.snapshot";
+
+        /**
+         * 写入快照的间隔，单位为秒
+         */
+        private Long writeInterval = 300L;
+
+        /**
+         * 快照写入后的有效期，超过后不再使用，单位为分钟
+         */
+        private Integer maxAge = 30;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+
+        public Long getWriteInterval() {
+            return writeInterval;
+        }
+
+        public void setWriteInterval(Long writeInterval) {
+            this.writeInterval = writeInterval;
+        }
+
+        public Integer getMaxAge() {
+            return maxAge;
+        }
+
+        public void setMaxAge(Integer maxAge) {
+            this.maxAge = maxAge;
+        }
+    }
+
+    public static class Metrics {
+
+        private boolean enabled = true;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+    }
+
+    public static class Jackson {
+
+        private boolean enabled = false;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+    }
+
+    public static class ChangeLog {
+
+        private boolean enabled = false;
+
+        /**
+         * 查询id大于参数的变更记录，结果列名需为id, dict_code, cache_key_prefix, data_code
+         */
+        private String querySql =
+                "select id, dict_code, cache_key_prefix, data_code from translator_change_log where id > ? order by id";
+
+        /**
+         * 启动时查询当前最大的id，之前的变更不再处理
+         */
+        private String startIdSql = "select max(id) from translator_change_log";
+
+        /**
+         * 轮询间隔，单位为秒
+         */
+        private Long pollInterval = 10L;
+
+        /**
+         * 每次轮询回看已读到的最大id之前的id数，处理提交较晚、id较小的记录
+         */
+        private Integer rescanSize = 100;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getQuerySql() {
+            return querySql;
+        }
+
+        public void setQuerySql(String querySql) {
+            this.querySql = querySql;
+        }
+
+        public String getStartIdSql() {
+            return startIdSql;
+        }
+
+        public void setStartIdSql(String startIdSql) {
+            this.startIdSql = startIdSql;
+        }
+
+        public Long getPollInterval() {
+            return pollInterval;
+        }
+
+        public void setPollInterval(Long pollInterval) {
+            this.pollInterval = pollInterval;
+        }
+
+        public Integer getRescanSize() {
+            return rescanSize;
+        }
+
+        public void setRescanSize(Integer rescanSize) {
+            this.rescanSize = rescanSize;
+        }
+    }
+
+    public static class Stale {
+
+        private boolean enabled = false;
+
+        /**
+         * 最多保留的key数量
+         */
+        private Long maximumSize = 100000L;
+
+        /**
+         * 写入后保留的时间，单位为分钟，应大于缓存的失效时间
+         */
+        private Integer expireTime = 1440;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(Long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public Integer getExpireTime() {
+            return expireTime;
+        }
+
+        public void setExpireTime(Integer expireTime) {
+            this.expireTime = expireTime;
+        }
+    }
+
+    public static class CircuitBreaker {
+
+        private boolean enabled = false;
+
+        /**
+         * 连续失败多少次后熔断
+         */
+        private Integer failureThreshold = 5;
+
+        /**
+         * 熔断后多久再试探，单位为秒
+         */
+        private Long coolDown = 30L;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Integer getFailureThreshold() {
+            return failureThreshold;
+        }
+
+        public void setFailureThreshold(Integer failureThreshold) {
+            this.failureThreshold = failureThreshold;
+        }
+
+        public Long getCoolDown() {
+            return coolDown;
+        }
+
+        public void setCoolDown(Long coolDown) {
+            this.coolDown = coolDown;
+        }
+    }
 }
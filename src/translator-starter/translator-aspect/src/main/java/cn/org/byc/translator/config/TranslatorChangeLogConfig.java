@@ -0,0 +1,49 @@
+package cn.org.byc.translator.config;
+
+import cn.org.byc.translator.util.ChangeLogPoller;
+import cn.org.byc.translator.util.TranslatorHelper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * 开启后轮询变更日志表，按变更记录清除转译缓存
+ */
+@Configuration
+@EnableConfigurationProperties(TranslatorAspectProperties.class)
+@ConditionalOnProperty(prefix = "cn.org.byc.translator.change-log", name = "enabled", havingValue = "true")
+@AutoConfigureAfter({TranslatorAspectAutoConfigWithRedisCache.class, TranslatorAspectAutoConfigWithCaffeineCache.class})
+public class TranslatorChangeLogConfig {
+
+    private final TranslatorAspectProperties translatorAspectProperties;
+
+    public TranslatorChangeLogConfig(TranslatorAspectProperties translatorAspectProperties) {
+        this.translatorAspectProperties = translatorAspectProperties;
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnMissingBean
+    @ConditionalOnBean({TranslatorHelper.class, DataSource.class})
+    public ChangeLogPoller translatorChangeLogPoller(DataSource dataSource,
+                                                     @Qualifier(TranslatorDataSources.BEAN_NAME)
+                                                     ObjectProvider<DataSource> translatorDataSource,
+                                                     TranslatorHelper translatorHelper) {
+        TranslatorAspectProperties.ChangeLog changeLog = translatorAspectProperties.getChangeLog();
+        ChangeLogPoller changeLogPoller = new ChangeLogPoller(
+                TranslatorDataSources.select(dataSource, translatorDataSource),
+                changeLog.getQuerySql(),
+                changeLog.getStartIdSql(),
+                translatorHelper,
+                changeLog.getRescanSize());
+        changeLogPoller.start(changeLog.getPollInterval());
+        return changeLogPoller;
+    }
+}
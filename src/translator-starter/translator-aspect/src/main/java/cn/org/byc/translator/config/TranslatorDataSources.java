@@ -0,0 +1,22 @@
+package cn.org.byc.translator.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+
+import javax.sql.DataSource;
+
+/**
+ * 转译查库使用的数据源：存在名为translatorDataSource的bean时使用它(如连接数较少的独立连接池)，
+ * 避免转译占满业务连接池，否则使用应用的DataSource
+ */
+final class TranslatorDataSources {
+
+    static final String BEAN_NAME = "translatorDataSource";
+
+    private TranslatorDataSources() {
+    }
+
+    static DataSource select(DataSource dataSource, ObjectProvider<DataSource> translatorDataSource) {
+        DataSource dedicated = translatorDataSource.getIfAvailable();
+        return dedicated != null ? dedicated : dataSource;
+    }
+}
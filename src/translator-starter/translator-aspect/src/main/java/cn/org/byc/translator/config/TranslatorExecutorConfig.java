@@ -0,0 +1,81 @@
+package cn.org.byc.translator.config;
+
+import org.springframework.boot.autoconfigure.AutoConfigureBefore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 转译使用的线程池，容器关闭时关闭
+ */
+@Configuration
+@EnableConfigurationProperties(TranslatorAspectProperties.class)
+@AutoConfigureBefore({TranslatorAspectAutoConfigWithRedisCache.class, TranslatorAspectAutoConfigWithCaffeineCache.class})
+public class TranslatorExecutorConfig {
+
+    /**
+     * 并行查库线程池的bean名称
+     */
+    public static final String PARALLEL_EXECUTOR = "translatorParallelExecutor";
+
+    /**
+     * 异步返参转译线程池的bean名称
+     */
+    public static final String ASYNC_EXECUTOR = "translatorAsyncExecutor";
+
+    private final TranslatorAspectProperties translatorAspectProperties;
+
+    public TranslatorExecutorConfig(TranslatorAspectProperties translatorAspectProperties) {
+        this.translatorAspectProperties = translatorAspectProperties;
+    }
+
+    /**
+     * 并行查库的线程池，线程数即并发查库数的上限；队列满时由调用线程自己查库
+     */
+    @Bean(name = PARALLEL_EXECUTOR, destroyMethod = "shutdown")
+    @ConditionalOnMissingBean(name = PARALLEL_EXECUTOR)
+    @ConditionalOnProperty(prefix = "cn.org.byc.translator.parallel", name = "enabled", havingValue = "true")
+    public ThreadPoolExecutor translatorParallelExecutor() {
+        TranslatorAspectProperties.Parallel properties = translatorAspectProperties.getParallel();
+        AtomicInteger threadIndex = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(properties.getMaxDbConcurrency(), properties.getMaxDbConcurrency(),
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                r -> {
+                    Thread thread = new Thread(r, "translator-parallel-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * 异步返参完成后在这个线程池中转译；队列满时由完成异步任务的线程转译
+     */
+    @Bean(name = ASYNC_EXECUTOR, destroyMethod = "shutdown")
+    @ConditionalOnMissingBean(name = ASYNC_EXECUTOR)
+    public ThreadPoolExecutor translatorAsyncExecutor() {
+        TranslatorAspectProperties.Async properties = translatorAspectProperties.getAsync();
+        AtomicInteger threadIndex = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(properties.getThreads(), properties.getThreads(),
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                r -> {
+                    Thread thread = new Thread(r, "translator-async-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
@@ -0,0 +1,116 @@
+package cn.org.byc.translator.config;
+
+import cn.org.byc.translator.util.DictionaryStore;
+import cn.org.byc.translator.util.RefreshAhead;
+import cn.org.byc.translator.util.StaleValues;
+import cn.org.byc.translator.util.TranslationSource;
+import cn.org.byc.translator.util.TranslatorHelper;
+import cn.org.byc.translator.util.TranslatorMetrics;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * 根据配置项创建TranslatorHelper，供不同缓存实现的自动配置共用
+ */
+final class TranslatorHelperFactory {
+
+    private TranslatorHelperFactory() {
+    }
+
+    static TranslatorHelper create(DataSource dataSource,
+                                   TranslatorAspectProperties translatorAspectProperties,
+                                   TranslatorHelper.CacheSupport cacheSupport,
+                                   DictionaryStore dictionaryStore,
+                                   TranslatorMetrics metrics,
+                                   List<TranslationSource> translationSources,
+                                   Executor parallelExecutor) {
+        TranslatorHelper translatorHelper = new TranslatorHelper(dataSource,
+                translatorAspectProperties.getDictQuerySql(),
+                translatorAspectProperties.getDictQuerySqlEng(),
+                cacheSupport);
+        if (isConsistentWithDictSql(translatorAspectProperties, TranslatorAspectProperties::getDictBatchQuerySql)) {
+            translatorHelper.setDictBatchQuerySql(translatorAspectProperties.getDictBatchQuerySql());
+        }
+        if (isConsistentWithDictSql(translatorAspectProperties, TranslatorAspectProperties::getDictBatchQuerySqlEng)) {
+            translatorHelper.setDictBatchQuerySqlEng(translatorAspectProperties.getDictBatchQuerySqlEng());
+        }
+        if (isConsistentWithDictSql(translatorAspectProperties, TranslatorAspectProperties::getDictFusedQuerySql)) {
+            translatorHelper.setDictFusedQuerySql(translatorAspectProperties.getDictFusedQuerySql());
+            // 合并批量查询sql仍为默认值时不设置，合并转译器逐个查询
+            if (isConsistentWithDictSql(translatorAspectProperties, TranslatorAspectProperties::getDictFusedBatchQuerySql)) {
+                translatorHelper.setDictFusedBatchQuerySql(translatorAspectProperties.getDictFusedBatchQuerySql());
+            }
+        }
+        translatorHelper.setBatchSize(translatorAspectProperties.getBatchSize());
+        translatorHelper.setWindowSize(translatorAspectProperties.getWindowSize());
+        translatorHelper.setStreamDedupMaxSize(translatorAspectProperties.getStreamDedupMaxSize());
+        translatorHelper.setDictionaryStore(dictionaryStore);
+        translatorHelper.setRefreshAhead(refreshAhead(translatorAspectProperties));
+        if (parallelExecutor != null) {
+            translatorHelper.setParallelExecutor(parallelExecutor, translatorAspectProperties.getParallel().getMaxDbConcurrency());
+        }
+        translatorHelper.setMetrics(metrics);
+        translationSources.forEach(translatorHelper::registerSource);
+        translatorHelper.setTimeout(translatorAspectProperties.getTimeout());
+        translatorHelper.setStaleValues(staleValues(translatorAspectProperties));
+        TranslatorAspectProperties.CircuitBreaker circuitBreaker = translatorAspectProperties.getCircuitBreaker();
+        if (circuitBreaker.isEnabled()) {
+            translatorHelper.setCircuitBreaker(circuitBreaker.getFailureThreshold(), circuitBreaker.getCoolDown(), TimeUnit.SECONDS);
+        }
+        return translatorHelper;
+    }
+
+    /**
+     * 修改了字典查询sql而批量查询、合并查询的sql仍为默认值时，两者查询的可能不是同一张表，
+     * 不使用默认的批量查询sql(逐个查询)，不合并字典转译器
+     *
+     * @param translatorAspectProperties
+     * @param sqlGetter                  批量查询或合并查询的sql
+     * @return
+     */
+    private static boolean isConsistentWithDictSql(TranslatorAspectProperties translatorAspectProperties,
+                                                   Function<TranslatorAspectProperties, String> sqlGetter) {
+        TranslatorAspectProperties defaults = new TranslatorAspectProperties();
+        boolean dictSqlDefault = Objects.equals(defaults.getDictQuerySql(), translatorAspectProperties.getDictQuerySql())
+                && Objects.equals(defaults.getDictQuerySqlEng(), translatorAspectProperties.getDictQuerySqlEng());
+        boolean sqlDefault = Objects.equals(sqlGetter.apply(defaults), sqlGetter.apply(translatorAspectProperties));
+        return dictSqlDefault || !sqlDefault;
+    }
+
+    private static StaleValues staleValues(TranslatorAspectProperties translatorAspectProperties) {
+        TranslatorAspectProperties.Stale properties = translatorAspectProperties.getStale();
+        if (!properties.isEnabled()) {
+            return null;
+        }
+        return new StaleValues(properties.getExpireTime(), TimeUnit.MINUTES, properties.getMaximumSize());
+    }
+
+    private static RefreshAhead refreshAhead(TranslatorAspectProperties translatorAspectProperties) {
+        TranslatorAspectProperties.RefreshAhead properties = translatorAspectProperties.getRefreshAhead();
+        if (!properties.isEnabled()) {
+            return null;
+        }
+        AtomicInteger threadIndex = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(properties.getThreads(), properties.getThreads(),
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                r -> {
+                    Thread thread = new Thread(r, "translator-refresh-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        long expireSeconds = TimeUnit.MINUTES.toSeconds(translatorAspectProperties.getCacheExpireTime());
+        return new RefreshAhead((long) (expireSeconds * properties.getRatio()), expireSeconds, TimeUnit.SECONDS,
+                properties.getMaximumSize(), executor);
+    }
+}
@@ -0,0 +1,25 @@
+package cn.org.byc.translator.config;
+
+import cn.org.byc.translator.jackson.TranslatorModule;
+import cn.org.byc.translator.util.TranslatorHelper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 开启序列化时转译后注册Jackson模块，Spring Boot的ObjectMapper会自动加载Module类型的bean
+ */
+@Configuration
+@ConditionalOnClass(name = "com.fasterxml.jackson.databind.ObjectMapper")
+@ConditionalOnProperty(prefix = "cn.org.byc.translator.jackson", name = "enabled", havingValue = "true")
+public class TranslatorJacksonConfig {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public TranslatorModule translatorModule(ObjectProvider<TranslatorHelper> translatorHelper) {
+        return new TranslatorModule(translatorHelper::getIfAvailable);
+    }
+}
@@ -0,0 +1,45 @@
+package cn.org.byc.translator.config;
+
+import cn.org.byc.translator.util.MicrometerTranslatorMetrics;
+import cn.org.byc.translator.util.TranslatorMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.AutoConfigureBefore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 存在MeterRegistry时采集转译指标，存在actuator时提供translator端点
+ */
+@Configuration
+@ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+@ConditionalOnProperty(prefix = "cn.org.byc.translator.metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+@AutoConfigureAfter(name = "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration")
+@AutoConfigureBefore({TranslatorAspectAutoConfigWithRedisCache.class, TranslatorAspectAutoConfigWithCaffeineCache.class})
+public class TranslatorMetricsConfig {
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnBean(MeterRegistry.class)
+    public TranslatorMetrics translatorMetrics(MeterRegistry meterRegistry) {
+        return new MicrometerTranslatorMetrics(meterRegistry);
+    }
+
+    @Configuration
+    @ConditionalOnClass(name = "org.springframework.boot.actuate.endpoint.annotation.Endpoint")
+    static class EndpointConfig {
+
+        @Bean
+        @ConditionalOnMissingBean
+        @ConditionalOnBean(MeterRegistry.class)
+        @ConditionalOnAvailableEndpoint(endpoint = TranslatorMetricsEndpoint.class)
+        public TranslatorMetricsEndpoint translatorMetricsEndpoint(MeterRegistry meterRegistry) {
+            return new TranslatorMetricsEndpoint(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package cn.org.byc.translator.config;
+
+import cn.org.byc.translator.util.MicrometerTranslatorMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 转译指标汇总：/actuator/translator
+ */
+@Endpoint(id = "translator")
+public class TranslatorMetricsEndpoint {
+
+    private static final String PREFIX = MicrometerTranslatorMetrics.METER_PREFIX;
+
+    private static final List<String> CACHE_METER_NAMES = List.of("cache.gets", "cache.puts", "cache.evictions", "cache.size");
+
+    private final MeterRegistry meterRegistry;
+
+    public TranslatorMetricsEndpoint(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @ReadOperation
+    public Map<String, Object> metrics() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("lookups", lookups());
+        result.put("dbQueries", timers(PREFIX + "db.query", "prefix"));
+        result.put("methods", timers(PREFIX + "trans", "method"));
+        DistributionSummary visited = meterRegistry.find(PREFIX + "objects.visited").summary();
+        if (visited != null) {
+            Map<String, Object> visitedMap = new LinkedHashMap<>();
+            visitedMap.put("count", visited.count());
+            visitedMap.put("mean", visited.mean());
+            visitedMap.put("max", visited.max());
+            result.put("objectsVisited", visitedMap);
+        }
+        result.put("caches", caches());
+        return result;
+    }
+
+    /**
+     * tier -> prefix -> {hit, miss}
+     */
+    private Map<String, Map<String, Map<String, Double>>> lookups() {
+        Map<String, Map<String, Map<String, Double>>> lookups = new TreeMap<>();
+        for (Counter counter : meterRegistry.find(PREFIX + "lookup").counters()) {
+            Meter.Id id = counter.getId();
+            lookups.computeIfAbsent(id.getTag("tier"), e -> new TreeMap<>())
+                    .computeIfAbsent(id.getTag("prefix"), e -> new TreeMap<>())
+                    .put(id.getTag("result"), counter.count());
+        }
+        return lookups;
+    }
+
+    private Map<String, Map<String, Object>> timers(String name, String tagKey) {
+        Map<String, Map<String, Object>> timers = new TreeMap<>();
+        for (Timer timer : meterRegistry.find(name).timers()) {
+            Map<String, Object> timerMap = new LinkedHashMap<>();
+            timerMap.put("count", timer.count());
+            timerMap.put("totalMs", timer.totalTime(TimeUnit.MILLISECONDS));
+            timerMap.put("meanMs", timer.mean(TimeUnit.MILLISECONDS));
+            timerMap.put("maxMs", timer.max(TimeUnit.MILLISECONDS));
+            timers.put(timer.getId().getTag(tagKey), timerMap);
+        }
+        return timers;
+    }
+
+    /**
+     * 转译器登记的Caffeine缓存统计，cache -> 指标名(含result等标签) -> 值
+     */
+    private Map<String, Map<String, Double>> caches() {
+        Map<String, Map<String, Double>> caches = new TreeMap<>();
+        for (String name : CACHE_METER_NAMES) {
+            for (Meter meter : meterRegistry.find(name).meters()) {
+                addCacheMeter(caches, meter);
+            }
+        }
+        return caches;
+    }
+
+    private void addCacheMeter(Map<String, Map<String, Double>> caches, Meter meter) {
+        String cacheName = meter.getId().getTag("cache");
+        if (cacheName == null || !cacheName.startsWith("translator")) {
+            return;
+        }
+        String result = meter.getId().getTag("result");
+        String key = result == null ? meter.getId().getName() : meter.getId().getName() + "." + result;
+        double value;
+        if (meter instanceof FunctionCounter functionCounter) {
+            value = functionCounter.count();
+        } else if (meter instanceof Gauge gauge) {
+            value = gauge.value();
+        } else if (meter instanceof Counter counter) {
+            value = counter.count();
+        } else {
+            return;
+        }
+        caches.computeIfAbsent(cacheName, e -> new TreeMap<>()).put(key, value);
+    }
+}
@@ -0,0 +1,57 @@
+package cn.org.byc.translator.jackson;
+
+import cn.org.byc.translator.util.TranslatorHelper;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.PropertyName;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+
+/**
+ * 转译字段的属性：有转译值时输出转译值，否则按原属性输出
+ */
+class TranslatedPropertyWriter extends BeanPropertyWriter {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String fieldName;
+
+    private final transient TranslatorHelper translatorHelper;
+
+    TranslatedPropertyWriter(BeanPropertyWriter base, String fieldName, TranslatorHelper translatorHelper) {
+        super(base);
+        this.fieldName = fieldName;
+        this.translatorHelper = translatorHelper;
+    }
+
+    private TranslatedPropertyWriter(TranslatedPropertyWriter base, PropertyName name) {
+        super(base, name);
+        this.fieldName = base.fieldName;
+        this.translatorHelper = base.translatorHelper;
+    }
+
+    @Override
+    protected BeanPropertyWriter _new(PropertyName newName) {
+        return new TranslatedPropertyWriter(this, newName);
+    }
+
+    @Override
+    public void serializeAsField(Object bean, JsonGenerator gen, SerializerProvider prov) throws Exception {
+        String value = TranslatorModule.translations(translatorHelper, bean, gen, prov).get(bean, fieldName);
+        if (value == null) {
+            super.serializeAsField(bean, gen, prov);
+            return;
+        }
+        gen.writeFieldName(_name);
+        gen.writeString(value);
+    }
+
+    @Override
+    public void serializeAsElement(Object bean, JsonGenerator gen, SerializerProvider prov) throws Exception {
+        String value = TranslatorModule.translations(translatorHelper, bean, gen, prov).get(bean, fieldName);
+        if (value == null) {
+            super.serializeAsElement(bean, gen, prov);
+            return;
+        }
+        gen.writeString(value);
+    }
+}
@@ -0,0 +1,160 @@
+package cn.org.byc.translator.jackson;
+
+import cn.org.byc.translator.util.TranslatorHelper;
+import cn.org.byc.translator.util.Translations;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.introspect.AnnotatedField;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import com.fasterxml.jackson.databind.util.SimpleBeanPropertyDefinition;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * 序列化时转译：带@TranslatorField的类的转译字段在序列化时输出转译值，不修改对象，
+ * 没有setter的类(不可变类、record)也能转译。
+ * <p>
+ * 第一次序列化到带转译字段的对象时，从输出上下文中最外层的值开始收集整个对象图的key并批量查询，
+ * 之后的对象直接读取查询结果，一次序列化只查询一次。转译字段没有对应的JSON属性时(如没有getter)作为虚拟属性输出
+ */
+public class TranslatorModule extends SimpleModule {
+
+    /**
+     * 本次序列化的转译值，保存在SerializerProvider的属性中
+     */
+    static final Object TRANSLATIONS_ATTRIBUTE = Translations.class;
+
+    public TranslatorModule(TranslatorHelper translatorHelper) {
+        this(() -> translatorHelper);
+    }
+
+    /**
+     * @param translatorHelper 第一次创建序列化器时获取，避免ObjectMapper与TranslatorHelper互相依赖
+     */
+    public TranslatorModule(Supplier<TranslatorHelper> translatorHelper) {
+        super(TranslatorModule.class.getSimpleName());
+        setSerializerModifier(new TranslatorSerializerModifier(translatorHelper));
+    }
+
+    /**
+     * 获取对象的转译值，对象还没有查询过时先查询
+     *
+     * @param translatorHelper
+     * @param bean
+     * @param gen
+     * @param prov
+     * @return
+     */
+    static Translations translations(TranslatorHelper translatorHelper, Object bean, JsonGenerator gen, SerializerProvider prov) {
+        Translations translations = (Translations) prov.getAttribute(TRANSLATIONS_ATTRIBUTE);
+        if (translations == null) {
+            translations = new Translations();
+            prov.setAttribute(TRANSLATIONS_ATTRIBUTE, translations);
+        }
+        if (!translations.contains(bean)) {
+            translatorHelper.resolveTranslations(outerValues(bean, gen), translations);
+        }
+        return translations;
+    }
+
+    /**
+     * 输出上下文中由外到内正在序列化的值，最外层的值通常能到达整个对象图，
+     * 外层到达不了时(如泛型包装类的字段)由内层的容器覆盖同级的对象
+     */
+    private static List<Object> outerValues(Object bean, JsonGenerator gen) {
+        Set<Object> valueSet = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<Object> valueList = new ArrayList<>();
+        for (JsonStreamContext context = gen.getOutputContext(); context != null; context = context.getParent()) {
+            Object value = context.getCurrentValue();
+            if (value != null && valueSet.add(value)) {
+                valueList.add(value);
+            }
+        }
+        if (valueSet.add(bean)) {
+            valueList.add(0, bean);
+        }
+        Collections.reverse(valueList);
+        return valueList;
+    }
+
+    static class TranslatorSerializerModifier extends BeanSerializerModifier {
+
+        private final Supplier<TranslatorHelper> translatorHelper;
+
+        TranslatorSerializerModifier(Supplier<TranslatorHelper> translatorHelper) {
+            this.translatorHelper = translatorHelper;
+        }
+
+        /**
+         * 转译字段对应的属性替换成输出转译值的属性，没有对应属性的补充虚拟属性
+         */
+        @Override
+        public List<BeanPropertyWriter> changeProperties(SerializationConfig config,
+                                                         BeanDescription beanDesc,
+                                                         List<BeanPropertyWriter> beanProperties) {
+            TranslatorHelper helper = translatorHelper.get();
+            if (helper == null) {
+                return beanProperties;
+            }
+            List<String> fieldNameList = helper.translatedFieldNames(beanDesc.getBeanClass());
+            if (fieldNameList.isEmpty()) {
+                return beanProperties;
+            }
+            List<BeanPropertyWriter> writerList = new ArrayList<>(beanProperties);
+            for (String fieldName : fieldNameList) {
+                if (beanDesc.getIgnoredPropertyNames().contains(fieldName)) {
+                    continue;
+                }
+                int index = indexOf(beanDesc, writerList, fieldName);
+                if (index >= 0) {
+                    writerList.set(index, new TranslatedPropertyWriter(writerList.get(index), fieldName, helper));
+                    continue;
+                }
+                AnnotatedField field = findField(beanDesc, fieldName);
+                if (field != null) {
+                    BeanPropertyDefinition propertyDefinition = SimpleBeanPropertyDefinition.construct(config, field);
+                    writerList.add(new VirtualTranslatedPropertyWriter(propertyDefinition, beanDesc,
+                            config.constructType(String.class), fieldName, helper));
+                }
+            }
+            return writerList;
+        }
+
+        /**
+         * 按内部名称(重命名之前的字段名)查找属性
+         */
+        private int indexOf(BeanDescription beanDesc, List<BeanPropertyWriter> writerList, String fieldName) {
+            for (BeanPropertyDefinition propertyDefinition : beanDesc.findProperties()) {
+                if (!fieldName.equals(propertyDefinition.getInternalName())) {
+                    continue;
+                }
+                for (int i = 0; i < writerList.size(); i++) {
+                    if (writerList.get(i).getName().equals(propertyDefinition.getName())) {
+                        return i;
+                    }
+                }
+            }
+            return -1;
+        }
+
+        private AnnotatedField findField(BeanDescription beanDesc, String fieldName) {
+            for (AnnotatedField field : beanDesc.getClassInfo().fields()) {
+                if (field.getName().equals(fieldName)) {
+                    return field;
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package cn.org.byc.translator.jackson;
+
+import cn.org.byc.translator.util.TranslatorHelper;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.cfg.MapperConfig;
+import com.fasterxml.jackson.databind.introspect.AnnotatedClass;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.fasterxml.jackson.databind.ser.VirtualBeanPropertyWriter;
+import com.fasterxml.jackson.databind.util.Annotations;
+
+/**
+ * 没有对应JSON属性的转译字段(如没有getter的私有字段)，作为虚拟属性输出转译值
+ */
+class VirtualTranslatedPropertyWriter extends VirtualBeanPropertyWriter {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String fieldName;
+
+    private final transient TranslatorHelper translatorHelper;
+
+    /**
+     * Jackson按配置创建(如@JsonAppend、mix-in)时使用，之后调用withConfig
+     */
+    protected VirtualTranslatedPropertyWriter() {
+        this.fieldName = null;
+        this.translatorHelper = null;
+    }
+
+    VirtualTranslatedPropertyWriter(BeanPropertyDefinition propertyDefinition,
+                                    BeanDescription beanDesc,
+                                    JavaType declaredType,
+                                    String fieldName,
+                                    TranslatorHelper translatorHelper) {
+        this(propertyDefinition, beanDesc.getClassAnnotations(), declaredType, fieldName, translatorHelper);
+    }
+
+    private VirtualTranslatedPropertyWriter(BeanPropertyDefinition propertyDefinition,
+                                            Annotations contextAnnotations,
+                                            JavaType declaredType,
+                                            String fieldName,
+                                            TranslatorHelper translatorHelper) {
+        super(propertyDefinition, contextAnnotations, declaredType);
+        this.fieldName = fieldName;
+        this.translatorHelper = translatorHelper;
+    }
+
+    /**
+     * 没有TranslatorHelper时(不是由TranslatorModule创建)输出null
+     */
+    @Override
+    protected Object value(Object bean, JsonGenerator gen, SerializerProvider prov) {
+        if (translatorHelper == null) {
+            return null;
+        }
+        return TranslatorModule.translations(translatorHelper, bean, gen, prov).get(bean, fieldName);
+    }
+
+    /**
+     * 按属性定义创建，转译字段名取属性的内部名称，保留当前的TranslatorHelper
+     */
+    @Override
+    public VirtualBeanPropertyWriter withConfig(MapperConfig<?> config,
+                                                AnnotatedClass declaringClass,
+                                                BeanPropertyDefinition propDef,
+                                                JavaType type) {
+        return new VirtualTranslatedPropertyWriter(propDef, declaringClass.getAnnotations(), type,
+                propDef.getInternalName(), translatorHelper);
+    }
+}
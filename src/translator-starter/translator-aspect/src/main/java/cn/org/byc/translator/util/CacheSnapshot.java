@@ -0,0 +1,314 @@
+package cn.org.byc.translator.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.Assert;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 缓存快照：定时把本地缓存中的转译值写入文件，启动时以只读方式内存映射该文件，
+ * 在快照有效期内作为本地缓存之后的预热层，避免重启后集中查库。
+ * 同一台机器上的多个实例可以共用一个快照文件，映射的内容在操作系统页缓存中共享，不占用堆内存
+ * <p>
+ * 文件格式：头部(魔数、版本、写入时间、条目数、槽位数)，槽位表(条目偏移，0为空)，条目(hash、key、value)
+ */
+public class CacheSnapshot {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheSnapshot.class);
+
+    private static final int MAGIC = 0x54524E53;
+
+    private static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 4 + 4;
+
+    private final Path path;
+
+    private final long maxAgeMillis;
+
+    /**
+     * 启动时映射的快照，过期或无效时为null
+     */
+    private volatile MappedByteBuffer buffer;
+
+    private volatile long expireAtMillis;
+
+    private int slotCount;
+
+    /**
+     * 条目区的起始偏移，即槽位表的结束位置
+     */
+    private int dataStart;
+
+    private Supplier<Map<String, String>> source;
+
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * @param path         快照文件
+     * @param maxAgeMillis 快照写入后超过此时间不再使用
+     */
+    public CacheSnapshot(Path path, long maxAgeMillis) {
+        Assert.notNull(path, "path不能为空");
+        this.path = path;
+        this.maxAgeMillis = maxAgeMillis;
+    }
+
+    /**
+     * 映射已有的快照文件，文件不存在、已过期或格式不对时忽略
+     */
+    public synchronized void open() {
+        if (!Files.isRegularFile(path)) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                return;
+            }
+            // 映射建立后关闭通道不影响读取，写入方用新文件替换，不会改动已映射的内容
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (mapped.getInt(0) != MAGIC || mapped.getInt(4) != VERSION) {
+                log.warn("转译缓存快照格式不正确，忽略：{}", path);
+                return;
+            }
+            long expireAt = mapped.getLong(8) + maxAgeMillis;
+            if (expireAt <= System.currentTimeMillis()) {
+                log.info("转译缓存快照已过期，忽略：{}", path);
+                return;
+            }
+            int slots = mapped.getInt(20);
+            // 槽位数为2的幂，槽位表在文件范围内
+            if (slots <= 0 || Integer.bitCount(slots) != 1 || HEADER_SIZE + slots * 4L > size) {
+                log.warn("转译缓存快照槽位数不正确，忽略：{}", path);
+                return;
+            }
+            slotCount = slots;
+            dataStart = HEADER_SIZE + slots * 4;
+            expireAtMillis = expireAt;
+            buffer = mapped;
+            log.info("已映射转译缓存快照：{}，条目数：{}", path, mapped.getInt(16));
+        } catch (IOException | RuntimeException e) {
+            log.error("映射转译缓存快照失败", e);
+        }
+    }
+
+    /**
+     * 从快照中读取转译值
+     *
+     * @param cacheKey
+     * @return 快照中没有、快照已过期或条目损坏时返回null
+     */
+    public String get(String cacheKey) {
+        MappedByteBuffer mapped = buffer;
+        if (mapped == null) {
+            return null;
+        }
+        if (System.currentTimeMillis() >= expireAtMillis) {
+            buffer = null;
+            return null;
+        }
+        int hash = cacheKey.hashCode();
+        byte[] keyBytes = null;
+        int mask = slotCount - 1;
+        int limit = mapped.limit();
+        int slot = spread(hash) & mask;
+        // 最多探测slotCount次，损坏的文件没有空槽时也能结束
+        for (int i = 0; i < slotCount; i++, slot = (slot + 1) & mask) {
+            int offset = mapped.getInt(HEADER_SIZE + slot * 4);
+            if (offset == 0) {
+                return null;
+            }
+            if (offset < dataStart || offset > limit - 12) {
+                return corrupted();
+            }
+            if (mapped.getInt(offset) != hash) {
+                continue;
+            }
+            if (keyBytes == null) {
+                keyBytes = cacheKey.getBytes(StandardCharsets.UTF_8);
+            }
+            int keyLength = mapped.getInt(offset + 4);
+            if (keyLength < 0 || keyLength > limit - offset - 12) {
+                return corrupted();
+            }
+            if (keyLength == keyBytes.length && keyEquals(mapped, offset + 8, keyBytes)) {
+                int valueOffset = offset + 8 + keyLength;
+                int valueLength = mapped.getInt(valueOffset);
+                if (valueLength < 0 || valueLength > limit - valueOffset - 4) {
+                    return corrupted();
+                }
+                byte[] valueBytes = new byte[valueLength];
+                mapped.get(valueOffset + 4, valueBytes);
+                return new String(valueBytes, StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 快照距离过期的剩余时间，快照中的值回填缓存时以此为上限，回填的值不会比快照本身存留更久
+     *
+     * @return 未映射、已停用或已过期时返回0
+     */
+    public long remainingMillis() {
+        if (buffer == null) {
+            return 0;
+        }
+        return Math.max(expireAtMillis - System.currentTimeMillis(), 0);
+    }
+
+    /**
+     * 条目偏移或长度超出文件范围，停用快照
+     */
+    private String corrupted() {
+        if (buffer != null) {
+            buffer = null;
+            log.warn("转译缓存快照条目损坏，停用缓存快照：{}", path);
+        }
+        return null;
+    }
+
+    /**
+     * 停用已映射的快照，缓存被主动清除后快照中的值可能已过时
+     */
+    public void invalidate() {
+        if (buffer != null) {
+            buffer = null;
+            log.info("转译缓存已被清除，停用缓存快照：{}", path);
+        }
+    }
+
+    /**
+     * 按writeInterval(秒)定时写入快照，关闭时再写入一次
+     *
+     * @param writeInterval
+     * @param source        当前需要保存的转译值
+     */
+    public synchronized void start(long writeInterval, Supplier<Map<String, String>> source) {
+        this.source = source;
+        if (writeInterval > 0 && scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "translator-cache-snapshot");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(this::writeSnapshot, writeInterval, writeInterval, TimeUnit.SECONDS);
+        }
+    }
+
+    public synchronized void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+        writeSnapshot();
+    }
+
+    /**
+     * 写入快照：先写临时文件再原子替换，正在读取旧快照的实例不受影响
+     *
+     * @param entries cacheKey -> 转译值
+     */
+    public void write(Map<String, String> entries) throws IOException {
+        List<byte[][]> entryList = new ArrayList<>(entries.size());
+        List<Integer> hashList = new ArrayList<>(entries.size());
+        long dataSize = 0;
+        for (Map.Entry<String, String> entry : entries.entrySet()) {
+            if (entry.getValue() == null) {
+                continue;
+            }
+            byte[][] bytes = {entry.getKey().getBytes(StandardCharsets.UTF_8), entry.getValue().getBytes(StandardCharsets.UTF_8)};
+            entryList.add(bytes);
+            hashList.add(entry.getKey().hashCode());
+            dataSize += 12 + bytes[0].length + bytes[1].length;
+        }
+        // 槽位数为条目数的2倍以上，保证线性探测能找到空槽
+        int slots = Integer.highestOneBit(Math.max(entryList.size(), 1) * 2 - 1) * 2;
+        long fileSize = HEADER_SIZE + slots * 4L + dataSize;
+        if (fileSize > Integer.MAX_VALUE) {
+            throw new IOException("转译缓存快照过大：" + fileSize);
+        }
+
+        ByteBuffer out = ByteBuffer.allocate((int) fileSize);
+        out.putInt(MAGIC).putInt(VERSION).putLong(System.currentTimeMillis()).putInt(entryList.size()).putInt(slots);
+        int offset = HEADER_SIZE + slots * 4;
+        int mask = slots - 1;
+        for (int i = 0; i < entryList.size(); i++) {
+            int hash = hashList.get(i);
+            int slot = spread(hash) & mask;
+            while (out.getInt(HEADER_SIZE + slot * 4) != 0) {
+                slot = (slot + 1) & mask;
+            }
+            out.putInt(HEADER_SIZE + slot * 4, offset);
+            byte[][] bytes = entryList.get(i);
+            out.position(offset);
+            out.putInt(hash).putInt(bytes[0].length).put(bytes[0]).putInt(bytes[1].length).put(bytes[1]);
+            offset = out.position();
+        }
+        // 缓冲区大小与文件大小一致，整体写出
+        out.clear();
+
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path tempFile = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+                while (out.hasRemaining()) {
+                    channel.write(out);
+                }
+            }
+            try {
+                Files.move(tempFile, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    private void writeSnapshot() {
+        Supplier<Map<String, String>> currentSource = source;
+        if (currentSource == null) {
+            return;
+        }
+        try {
+            write(currentSource.get());
+        } catch (IOException | RuntimeException e) {
+            log.error("写入转译缓存快照失败", e);
+        }
+    }
+
+    private static boolean keyEquals(MappedByteBuffer mapped, int offset, byte[] keyBytes) {
+        for (int i = 0; i < keyBytes.length; i++) {
+            if (mapped.get(offset + i) != keyBytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
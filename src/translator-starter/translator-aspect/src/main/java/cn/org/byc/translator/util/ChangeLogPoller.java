@@ -0,0 +1,196 @@
+package cn.org.byc.translator.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 定时轮询变更日志表，按变更记录清除转译缓存，缓存可以使用较长的失效时间。
+ * 业务修改字典或被转译的数据时在同一事务中写入变更日志，每个实例各自轮询并清除本地和远程缓存。
+ * <p>
+ * 查询结果列名需为id, dict_code, cache_key_prefix, data_code：
+ * <ul>
+ *     <li>dict_code不为空：data_code不为空时清除该字典值，否则清除整个字典</li>
+ *     <li>cache_key_prefix不为空：data_code不为空时清除cache_key_prefix + data_code，否则清除该前缀的所有缓存</li>
+ * </ul>
+ * 自增id在插入时分配，提交晚的事务写入的记录id可能小于已读到的最大id。每次轮询回看最大id之前rescanSize个id，
+ * 只处理其中还没处理过的记录；晚于此范围提交的记录会被漏掉
+ */
+public class ChangeLogPoller {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeLogPoller.class);
+
+    private static final String COLUMN_ID = "id";
+    private static final String COLUMN_DICT_CODE = "dict_code";
+    private static final String COLUMN_CACHE_KEY_PREFIX = "cache_key_prefix";
+    private static final String COLUMN_DATA_CODE = "data_code";
+
+    private final DataSource dataSource;
+
+    /**
+     * 查询id大于参数的变更记录，按id升序
+     */
+    private final String querySql;
+
+    /**
+     * 启动时查询当前最大的id，之前的变更不再处理
+     */
+    private final String startIdSql;
+
+    private final TranslatorHelper translatorHelper;
+
+    /**
+     * 每次轮询回看的id数
+     */
+    private final int rescanSize;
+
+    private volatile long lastId = -1;
+
+    /**
+     * 启动时的id，不回看此前的记录
+     */
+    private long startId;
+
+    /**
+     * 回看范围内已处理的id
+     */
+    private final NavigableSet<Long> appliedIds = new TreeSet<>();
+
+    private ScheduledExecutorService scheduler;
+
+    public ChangeLogPoller(DataSource dataSource, String querySql, String startIdSql, TranslatorHelper translatorHelper) {
+        this(dataSource, querySql, startIdSql, translatorHelper, 100);
+    }
+
+    /**
+     * @param dataSource
+     * @param querySql
+     * @param startIdSql
+     * @param translatorHelper 缓存需支持清除
+     * @param rescanSize       每次轮询回看最大id之前的id数，为0时不回看
+     */
+    public ChangeLogPoller(DataSource dataSource, String querySql, String startIdSql, TranslatorHelper translatorHelper,
+                           int rescanSize) {
+        Assert.notNull(dataSource, "dataSource不能为空");
+        Assert.hasText(querySql, "querySql不能为空");
+        Assert.notNull(translatorHelper, "translatorHelper不能为空");
+        // 不支持清除时每次轮询都会失败，启动时就报错
+        Assert.isTrue(translatorHelper.isEvictable(), "转译缓存不支持清除，不能使用变更日志");
+        Assert.isTrue(rescanSize >= 0, "rescanSize不能小于0");
+        this.dataSource = dataSource;
+        this.querySql = querySql;
+        this.startIdSql = startIdSql;
+        this.translatorHelper = translatorHelper;
+        this.rescanSize = rescanSize;
+    }
+
+    /**
+     * 按pollInterval(秒)启动后台轮询
+     *
+     * @param pollInterval
+     */
+    public synchronized void start(long pollInterval) {
+        Assert.isTrue(pollInterval > 0, "pollInterval必须大于0");
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "translator-change-log");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(this::poll, 0, pollInterval, TimeUnit.SECONDS);
+        }
+    }
+
+    public synchronized void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * 处理上次之后的变更记录，以及回看范围内还没处理过的记录，第一次调用只记录起始id。
+     * 清除失败时不记录进度，下次轮询重新处理
+     */
+    public synchronized void poll() {
+        try (Connection connection = dataSource.getConnection()) {
+            if (lastId < 0) {
+                startId = startId(connection);
+                lastId = startId;
+                return;
+            }
+            // 相同的变更只处理一次
+            Set<List<String>> changeSet = new LinkedHashSet<>();
+            List<Long> idList = new ArrayList<>();
+            long maxId = lastId;
+            try (PreparedStatement preparedStatement = connection.prepareStatement(querySql)) {
+                preparedStatement.setLong(1, Math.max(startId, lastId - rescanSize));
+                try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                    while (resultSet.next()) {
+                        long id = resultSet.getLong(COLUMN_ID);
+                        if (appliedIds.contains(id)) {
+                            continue;
+                        }
+                        changeSet.add(Arrays.asList(resultSet.getString(COLUMN_DICT_CODE),
+                                resultSet.getString(COLUMN_CACHE_KEY_PREFIX),
+                                resultSet.getString(COLUMN_DATA_CODE)));
+                        idList.add(id);
+                        maxId = Math.max(maxId, id);
+                    }
+                }
+            }
+            changeSet.forEach(change -> apply(change.get(0), change.get(1), change.get(2)));
+            lastId = maxId;
+            if (rescanSize > 0) {
+                appliedIds.addAll(idList);
+                appliedIds.headSet(lastId - rescanSize, true).clear();
+            }
+        } catch (Exception e) {
+            log.error("轮询转译变更日志失败", e);
+        }
+    }
+
+    private long startId(Connection connection) throws SQLException {
+        if (!StringUtils.hasText(startIdSql)) {
+            return 0;
+        }
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(startIdSql)) {
+            return resultSet.next() ? resultSet.getLong(1) : 0;
+        }
+    }
+
+    private void apply(String dictCode, String cacheKeyPrefix, String dataCode) {
+        if (StringUtils.hasText(dictCode)) {
+            if (StringUtils.hasText(dataCode)) {
+                translatorHelper.evictDict(dictCode, dataCode);
+            } else {
+                translatorHelper.evictDict(dictCode);
+            }
+        } else if (StringUtils.hasText(cacheKeyPrefix)) {
+            if (StringUtils.hasText(dataCode)) {
+                translatorHelper.evict(cacheKeyPrefix + dataCode);
+            } else {
+                translatorHelper.evictByPrefix(cacheKeyPrefix);
+            }
+        }
+    }
+}
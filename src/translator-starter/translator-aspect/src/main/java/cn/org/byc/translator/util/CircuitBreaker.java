@@ -0,0 +1,92 @@
+package cn.org.byc.translator.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.Assert;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 熔断器：连续失败failureThreshold次后打开，coolDown时间内不再调用；
+ * 冷却结束后只放行一次试探调用，成功则关闭，失败则重新打开；试探调用没有结果时下一个冷却期结束后再试探
+ */
+public class CircuitBreaker {
+
+    private static final Logger log = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    private final String name;
+
+    private final int failureThreshold;
+
+    private final long coolDownNanos;
+
+    private final AtomicInteger failures = new AtomicInteger();
+
+    /**
+     * 打开到何时(System.nanoTime)，未打开时为0
+     */
+    private final AtomicLong openUntil = new AtomicLong();
+
+    /**
+     * @param name             日志中显示的名称
+     * @param failureThreshold 连续失败多少次后打开
+     * @param coolDown         打开后的冷却时间
+     * @param unit
+     */
+    public CircuitBreaker(String name, int failureThreshold, long coolDown, TimeUnit unit) {
+        Assert.isTrue(failureThreshold > 0, "failureThreshold必须大于0");
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.coolDownNanos = unit.toNanos(coolDown);
+    }
+
+    /**
+     * 是否可以调用，冷却结束后只有一个调用方得到true
+     *
+     * @return
+     */
+    public boolean allowRequest() {
+        long until = openUntil.get();
+        if (until == 0) {
+            return true;
+        }
+        // 放行试探调用的同时推迟下一次试探
+        return System.nanoTime() - until >= 0 && openUntil.compareAndSet(until, nextOpenUntil());
+    }
+
+    public void success() {
+        failures.set(0);
+        if (openUntil.getAndSet(0) != 0) {
+            log.info("熔断器关闭, name = {}", name);
+        }
+    }
+
+    /**
+     * 记录一次失败，达到阈值或试探调用失败时(重新)打开
+     */
+    public void failure() {
+        if (failures.incrementAndGet() >= failureThreshold || openUntil.get() != 0) {
+            if (openUntil.getAndSet(nextOpenUntil()) == 0) {
+                log.warn("熔断器打开, name = {}, coolDown = {}ms", name, TimeUnit.NANOSECONDS.toMillis(coolDownNanos));
+            }
+        }
+    }
+
+    public boolean isOpen() {
+        return openUntil.get() != 0;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 0表示未打开，计算结果恰好为0时加1
+     */
+    private long nextOpenUntil() {
+        long until = System.nanoTime() + coolDownNanos;
+        return until == 0 ? 1 : until;
+    }
+}
@@ -0,0 +1,55 @@
+package cn.org.byc.translator.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 一次转译的截止时间，超过后不再查缓存和数据库，剩余的key使用过期值或不转译
+ */
+final class Deadline {
+
+    /**
+     * 不限时
+     */
+    static final Deadline NONE = new Deadline(Long.MAX_VALUE, false);
+
+    private final long deadlineNanos;
+
+    private final boolean bounded;
+
+    private Deadline(long deadlineNanos, boolean bounded) {
+        this.deadlineNanos = deadlineNanos;
+        this.bounded = bounded;
+    }
+
+    /**
+     * @param timeoutMillis 小于等于0时不限时
+     * @return
+     */
+    static Deadline after(long timeoutMillis) {
+        return timeoutMillis > 0
+                ? new Deadline(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis), true)
+                : NONE;
+    }
+
+    boolean isBounded() {
+        return bounded;
+    }
+
+    boolean isExpired() {
+        return bounded && remainingNanos() <= 0;
+    }
+
+    long remainingNanos() {
+        return bounded ? deadlineNanos - System.nanoTime() : Long.MAX_VALUE;
+    }
+
+    /**
+     * JDBC的查询超时，单位为秒，向上取整且至少1秒
+     *
+     * @return
+     */
+    int queryTimeoutSeconds() {
+        long seconds = TimeUnit.NANOSECONDS.toSeconds(remainingNanos());
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(1, seconds + 1));
+    }
+}
@@ -0,0 +1,245 @@
+package cn.org.byc.translator.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 预加载的数据字典，启动时把全部(或指定的)字典读入内存，后台定时刷新。
+ * 已加载的字典由Translator直接从内存转译，不再经过CacheSupport和数据库
+ */
+public class DictionaryStore {
+
+    private static final Logger log = LoggerFactory.getLogger(DictionaryStore.class);
+
+    private static final String COLUMN_DICT_CODE = "dict_code";
+    private static final String COLUMN_DICT_DATA_CODE = "dict_data_code";
+    private static final String COLUMN_DICT_DISPLAY = "dict_display";
+    private static final String COLUMN_DICT_ENG_DISPLAY = "dict_eng_display";
+
+    /**
+     * 默认的定期全量刷新间隔，单位为秒
+     */
+    private static final long DEFAULT_FULL_RELOAD_INTERVAL = 3600;
+
+    private final DataSource dataSource;
+
+    /**
+     * 查询字典数据的sql，结果列名需为dict_code, dict_data_code, dict_display, dict_eng_display
+     */
+    private final String querySql;
+
+    /**
+     * 只预加载这些字典，为空则加载全部
+     */
+    private final Set<String> dictCodes;
+
+    /**
+     * 更新时间列，配置后定时刷新只查询该列大于上次最大值的数据，否则每次全量刷新
+     */
+    private final String updateTimeColumn;
+
+    /**
+     * dictCode -> (dictDataCode -> [中文显示值, 英文显示值])
+     */
+    private volatile Map<String, Map<String, String[]>> dictMap = Collections.emptyMap();
+
+    private volatile Timestamp lastUpdateTime;
+
+    /**
+     * 上次全量加载的时间
+     */
+    private volatile long lastReloadMillis;
+
+    /**
+     * 增量刷新时定期全量刷新的间隔(毫秒)，不大于0则只增量刷新
+     */
+    private volatile long fullReloadIntervalMillis;
+
+    private volatile boolean loaded;
+
+    private ScheduledExecutorService scheduler;
+
+    public DictionaryStore(DataSource dataSource, String querySql, Collection<String> dictCodes, String updateTimeColumn) {
+        Assert.notNull(dataSource, "dataSource不能为空");
+        Assert.hasText(querySql, "querySql不能为空");
+        this.dataSource = dataSource;
+        this.querySql = querySql;
+        this.dictCodes = dictCodes == null ? Collections.emptySet() : new LinkedHashSet<>(dictCodes);
+        this.updateTimeColumn = StringUtils.hasText(updateTimeColumn) ? updateTimeColumn : null;
+    }
+
+    /**
+     * 按默认的全量刷新间隔启动
+     *
+     * @param refreshInterval
+     * @see #start(long, long)
+     */
+    public void start(long refreshInterval) {
+        start(refreshInterval, DEFAULT_FULL_RELOAD_INTERVAL);
+    }
+
+    /**
+     * 全量加载一次，并按refreshInterval(秒)启动后台刷新，refreshInterval不大于0则不刷新。
+     * 首次加载失败时字典仍走原有的缓存和数据库查询，等待后台刷新成功
+     *
+     * @param refreshInterval
+     * @param fullReloadInterval 增量刷新只能发现新增和修改的数据，距上次全量加载超过此时间(秒)时改为全量刷新，
+     *                           清除已删除的数据，不大于0则只增量刷新
+     */
+    public synchronized void start(long refreshInterval, long fullReloadInterval) {
+        fullReloadIntervalMillis = TimeUnit.SECONDS.toMillis(fullReloadInterval);
+        try {
+            reload();
+        } catch (Exception e) {
+            log.error("预加载字典失败", e);
+        }
+        if (refreshInterval > 0 && scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "translator-dict-refresh");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(this::refresh, refreshInterval, refreshInterval, TimeUnit.SECONDS);
+        }
+    }
+
+    public synchronized void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * 字典是否已预加载，只有已预加载的字典才由本类转译
+     *
+     * @param dictCode
+     * @return
+     */
+    public boolean contains(String dictCode) {
+        return loaded && (dictCodes.isEmpty() || dictCodes.contains(dictCode));
+    }
+
+    /**
+     * 获取字典显示值
+     *
+     * @param dictCode     字典CODE
+     * @param dictDataCode 字典值CODE
+     * @param eng          是否取英文显示值
+     * @return 显示值，字典里没有该值时返回null
+     */
+    public String get(String dictCode, String dictDataCode, boolean eng) {
+        Map<String, String[]> dataMap = dictMap.get(dictCode);
+        if (dataMap == null) {
+            return null;
+        }
+        String[] display = dataMap.get(dictDataCode);
+        return display == null ? null : display[eng ? 1 : 0];
+    }
+
+    /**
+     * 全量重新加载
+     */
+    public void reload() {
+        Map<String, Map<String, String[]>> newDictMap = new HashMap<>();
+        Timestamp maxUpdateTime = query(null, newDictMap);
+        // 并发读时只替换引用，内层使用ConcurrentHashMap以支持增量更新
+        Map<String, Map<String, String[]>> concurrentDictMap = new ConcurrentHashMap<>(newDictMap.size() * 2);
+        newDictMap.forEach((dictCode, dataMap) -> concurrentDictMap.put(dictCode, new ConcurrentHashMap<>(dataMap)));
+        dictMap = concurrentDictMap;
+        lastUpdateTime = maxUpdateTime;
+        lastReloadMillis = System.currentTimeMillis();
+        loaded = true;
+    }
+
+    /**
+     * 刷新：配置了更新时间列且已有基准时间时增量刷新，否则全量刷新；增量刷新到达全量刷新间隔时也全量刷新
+     */
+    public void refresh() {
+        try {
+            Timestamp since = lastUpdateTime;
+            long interval = fullReloadIntervalMillis;
+            if (updateTimeColumn == null || since == null
+                    || (interval > 0 && System.currentTimeMillis() - lastReloadMillis >= interval)) {
+                reload();
+                return;
+            }
+            Map<String, Map<String, String[]>> changedMap = new HashMap<>();
+            Timestamp maxUpdateTime = query(since, changedMap);
+            Map<String, Map<String, String[]>> currentDictMap = dictMap;
+            changedMap.forEach((dictCode, dataMap) ->
+                    currentDictMap.computeIfAbsent(dictCode, e -> new ConcurrentHashMap<>()).putAll(dataMap));
+            if (maxUpdateTime != null) {
+                lastUpdateTime = maxUpdateTime;
+            }
+        } catch (Exception e) {
+            log.error("刷新预加载字典失败", e);
+        }
+    }
+
+    /**
+     * 查询字典数据放入target
+     *
+     * @param since  不为空时只查询更新时间大于since的数据
+     * @param target
+     * @return 查询结果中最大的更新时间
+     */
+    private Timestamp query(Timestamp since, Map<String, Map<String, String[]>> target) {
+        StringBuilder sql = new StringBuilder("select * from (").append(querySql).append(") t where 1 = 1");
+        if (!dictCodes.isEmpty()) {
+            sql.append(" and ").append(COLUMN_DICT_CODE).append(" in (")
+                    .append(String.join(",", Collections.nCopies(dictCodes.size(), "?"))).append(")");
+        }
+        if (since != null) {
+            sql.append(" and ").append(updateTimeColumn).append(" > ?");
+        }
+
+        Timestamp maxUpdateTime = since;
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql.toString())) {
+            int index = 1;
+            for (String dictCode : dictCodes) {
+                preparedStatement.setString(index++, dictCode);
+            }
+            if (since != null) {
+                preparedStatement.setTimestamp(index, since);
+            }
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    target.computeIfAbsent(resultSet.getString(COLUMN_DICT_CODE), e -> new HashMap<>())
+                            .put(resultSet.getString(COLUMN_DICT_DATA_CODE), new String[]{
+                                    ValueInterner.intern(resultSet.getString(COLUMN_DICT_DISPLAY)),
+                                    ValueInterner.intern(resultSet.getString(COLUMN_DICT_ENG_DISPLAY))});
+                    if (updateTimeColumn != null) {
+                        Timestamp updateTime = resultSet.getTimestamp(updateTimeColumn);
+                        if (updateTime != null && (maxUpdateTime == null || updateTime.after(maxUpdateTime))) {
+                            maxUpdateTime = updateTime;
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("加载预加载字典失败", e);
+        }
+        return maxUpdateTime;
+    }
+}
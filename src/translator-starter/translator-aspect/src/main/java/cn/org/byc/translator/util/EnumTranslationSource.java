@@ -0,0 +1,70 @@
+package cn.org.byc.translator.util;
+
+import cn.org.byc.translator.annotation.TranslatorField;
+import org.springframework.util.Assert;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StringUtils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 按@TranslatorField的enumType转译：关联字段的值对应枚举的enumCode属性(默认name())，转译值为enumLabel属性(默认toString())。
+ * 关联字段本身是该枚举时按name()查找
+ */
+final class EnumTranslationSource implements TranslationSource {
+
+    static final String NAME = "enum";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Map<String, String> lookupTable(TranslatorField transField) {
+        Class<?> enumType = transField.enumType();
+        Assert.isTrue(enumType.isEnum(), () -> "enumType不是枚举:" + enumType.getName());
+        Map<String, String> table = new HashMap<>();
+        Object[] constants = enumType.getEnumConstants();
+        String[] labels = new String[constants.length];
+        for (int i = 0; i < constants.length; i++) {
+            Object label = StringUtils.hasText(transField.enumLabel())
+                    ? read(constants[i], transField.enumLabel()) : constants[i].toString();
+            Object code = StringUtils.hasText(transField.enumCode())
+                    ? read(constants[i], transField.enumCode()) : ((Enum<?>) constants[i]).name();
+            if (label != null && code != null) {
+                labels[i] = label.toString();
+                table.put(code.toString(), labels[i]);
+            }
+        }
+        // 关联字段为枚举本身时按name()查找，不覆盖已有的code
+        for (int i = 0; i < constants.length; i++) {
+            if (labels[i] != null) {
+                table.putIfAbsent(((Enum<?>) constants[i]).name(), labels[i]);
+            }
+        }
+        return table;
+    }
+
+    /**
+     * 依次尝试getXxx()、xxx()和字段xxx
+     */
+    private static Object read(Object constant, String property) {
+        Class<?> type = constant.getClass();
+        Method method = ReflectionUtils.findMethod(type, "get" + StringUtils.capitalize(property));
+        if (method == null) {
+            method = ReflectionUtils.findMethod(type, property);
+        }
+        if (method != null) {
+            ReflectionUtils.makeAccessible(method);
+            return ReflectionUtils.invokeMethod(method, constant);
+        }
+        Field field = ReflectionUtils.findField(type, property);
+        Assert.notNull(field, () -> String.format("枚举:%s没有属性:%s", type.getName(), property));
+        ReflectionUtils.makeAccessible(field);
+        return ReflectionUtils.getField(field, constant);
+    }
+}
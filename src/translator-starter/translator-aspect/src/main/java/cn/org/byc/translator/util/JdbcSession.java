@@ -0,0 +1,97 @@
+package cn.org.byc.translator.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 一次查库过程使用的数据库会话：第一次需要时才借出连接，整个过程只借一个连接，
+ * 按sql缓存PreparedStatement，关闭时依次关闭语句和连接。非线程安全，并行查库时每个任务各用一个。
+ * 有截止时间时按剩余时间设置语句的查询超时
+ */
+final class JdbcSession implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(JdbcSession.class);
+
+    /**
+     * 最多缓存的语句数，超出时关闭最久未使用的
+     */
+    private static final int MAX_STATEMENTS = 16;
+
+    private final DataSource dataSource;
+
+    private final Deadline deadline;
+
+    private Connection connection;
+
+    private final Map<String, PreparedStatement> statementMap = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+            if (size() > MAX_STATEMENTS) {
+                closeQuietly(eldest.getValue());
+                return true;
+            }
+            return false;
+        }
+    };
+
+    JdbcSession(DataSource dataSource) {
+        this(dataSource, Deadline.NONE);
+    }
+
+    JdbcSession(DataSource dataSource, Deadline deadline) {
+        this.dataSource = dataSource;
+        this.deadline = deadline;
+    }
+
+    /**
+     * 获取sql对应的PreparedStatement，同一个sql在本会话内只prepare一次。
+     * 调用方每次执行前需设置全部参数，并关闭得到的ResultSet
+     *
+     * @param sql
+     * @return
+     * @throws SQLException
+     */
+    PreparedStatement prepare(String sql) throws SQLException {
+        PreparedStatement preparedStatement = statementMap.get(sql);
+        if (preparedStatement == null) {
+            if (connection == null) {
+                connection = dataSource.getConnection();
+            }
+            preparedStatement = connection.prepareStatement(sql);
+            statementMap.put(sql, preparedStatement);
+        }
+        if (deadline.isBounded()) {
+            preparedStatement.setQueryTimeout(deadline.queryTimeoutSeconds());
+        }
+        return preparedStatement;
+    }
+
+    @Override
+    public void close() {
+        statementMap.values().forEach(JdbcSession::closeQuietly);
+        statementMap.clear();
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                log.error(e.getMessage(), e);
+            }
+            connection = null;
+        }
+    }
+
+    private static void closeQuietly(PreparedStatement preparedStatement) {
+        try {
+            preparedStatement.close();
+        } catch (SQLException e) {
+            log.debug("关闭PreparedStatement失败", e);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package cn.org.byc.translator.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于Micrometer的指标采集：
+ * <ul>
+ *     <li>translator.lookup：各层的命中和未命中数，标签tier、prefix、result(hit/miss)</li>
+ *     <li>translator.db.query：查库耗时，标签prefix</li>
+ *     <li>translator.degraded：因超时、熔断或出错跳过缓存或数据库的key数量，标签tier、reason</li>
+ *     <li>translator.trans：@TranslatorReturn方法返参的转译耗时，标签method</li>
+ *     <li>translator.objects.visited：每次批量转译遍历的对象数</li>
+ *     <li>cache.*：本地Caffeine缓存的统计信息，标签cache</li>
+ * </ul>
+ */
+public class MicrometerTranslatorMetrics implements TranslatorMetrics {
+
+    public static final String METER_PREFIX = "translator.";
+
+    private final MeterRegistry meterRegistry;
+
+    private final DistributionSummary visitedSummary;
+
+    public MicrometerTranslatorMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.visitedSummary = DistributionSummary.builder(METER_PREFIX + "objects.visited")
+                .description("每次批量转译遍历的对象数")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void recordLookup(String tier, String cacheKeyPrefix, int hits, int misses) {
+        if (hits > 0) {
+            lookupCounter(tier, cacheKeyPrefix, "hit").increment(hits);
+        }
+        if (misses > 0) {
+            lookupCounter(tier, cacheKeyPrefix, "miss").increment(misses);
+        }
+    }
+
+    @Override
+    public void recordDbQuery(String cacheKeyPrefix, long nanos, int keyCount) {
+        Timer.builder(METER_PREFIX + "db.query")
+                .description("查库耗时")
+                .tag("prefix", cacheKeyPrefix)
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordDegraded(String tier, String reason, int keyCount) {
+        Counter.builder(METER_PREFIX + "degraded")
+                .description("因超时、熔断或出错跳过的key数量")
+                .tag("tier", tier)
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment(keyCount);
+    }
+
+    @Override
+    public void recordVisited(int count) {
+        visitedSummary.record(count);
+    }
+
+    @Override
+    public void recordTranslation(String method, long nanos) {
+        Timer.builder(METER_PREFIX + "trans")
+                .description("返参转译耗时")
+                .tag("method", method)
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void monitorCache(String name, Cache<?, ?> cache) {
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    public MeterRegistry getMeterRegistry() {
+        return meterRegistry;
+    }
+
+    private Counter lookupCounter(String tier, String cacheKeyPrefix, String result) {
+        return Counter.builder(METER_PREFIX + "lookup")
+                .description("各层的命中和未命中数")
+                .tag("tier", tier)
+                .tag("prefix", cacheKeyPrefix)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,228 @@
+package cn.org.byc.translator.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * 二级缓存：本地Caffeine近端缓存在前，远程缓存(如redis)在后，远程缓存为共享的数据源。
+ * 值发生变化时(清除，或覆盖远程缓存中已有的不同值)通过消息通知其他实例清除近端缓存中的同名key，
+ * 未命中后回填缓存不发消息。消息的发送和接收由调用方接入(如redis pub/sub)
+ */
+public class NearCacheSupport implements TranslatorHelper.CacheSupport {
+
+    private static final Logger log = LoggerFactory.getLogger(NearCacheSupport.class);
+
+    private static final String SEPARATOR = "\n";
+
+    /**
+     * 失效消息的第二行为此标记时，第三行为要清除的key前缀
+     */
+    private static final String PREFIX_MARKER = "\u0000prefix";
+
+    /**
+     * 实例标识，收到自己发出的消息时忽略
+     */
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final Cache<String, String> nearCache;
+
+    private final TranslatorHelper.CacheSupport remoteCacheSupport;
+
+    private final Consumer<String> invalidationPublisher;
+
+    /**
+     * @param nearCache             近端缓存，应设置容量上限和过期时间
+     * @param remoteCacheSupport    远程缓存
+     * @param invalidationPublisher 发送失效消息，为null则不通知其他实例
+     */
+    public NearCacheSupport(Cache<String, String> nearCache,
+                            TranslatorHelper.CacheSupport remoteCacheSupport,
+                            Consumer<String> invalidationPublisher) {
+        this.nearCache = nearCache;
+        this.remoteCacheSupport = remoteCacheSupport;
+        this.invalidationPublisher = invalidationPublisher;
+    }
+
+    @Override
+    public void put(String cacheKey, String cacheValue) {
+        List<String> changedKeyList = changedKeys(Collections.singletonMap(cacheKey, cacheValue));
+        remoteCacheSupport.put(cacheKey, cacheValue);
+        putNear(cacheKey, cacheValue);
+        publish(changedKeyList);
+    }
+
+    @Override
+    public Optional<String> get(String cacheKey) {
+        String value = nearCache.getIfPresent(cacheKey);
+        if (value != null) {
+            return Optional.of(value);
+        }
+        Optional<String> valueOptional = remoteCacheSupport.get(cacheKey);
+        valueOptional.ifPresent(e -> putNear(cacheKey, e));
+        return valueOptional;
+    }
+
+    @Override
+    public Map<String, String> getAll(Collection<String> cacheKeys) {
+        Map<String, String> result = new HashMap<>(nearCache.getAllPresent(cacheKeys));
+        if (result.size() == cacheKeys.size()) {
+            return result;
+        }
+        List<String> remoteKeyList = new ArrayList<>(cacheKeys.size() - result.size());
+        for (String cacheKey : cacheKeys) {
+            if (!result.containsKey(cacheKey)) {
+                remoteKeyList.add(cacheKey);
+            }
+        }
+        Map<String, String> remoteValueMap = remoteCacheSupport.getAll(remoteKeyList);
+        remoteValueMap.forEach(this::putNear);
+        result.putAll(remoteValueMap);
+        return result;
+    }
+
+    @Override
+    public void putAll(Map<String, String> cacheValues) {
+        List<String> changedKeyList = changedKeys(cacheValues);
+        remoteCacheSupport.putAll(cacheValues);
+        cacheValues.forEach(this::putNear);
+        publish(changedKeyList);
+    }
+
+    @Override
+    public void evict(Collection<String> cacheKeys) {
+        remoteCacheSupport.evict(cacheKeys);
+        nearCache.invalidateAll(cacheKeys);
+        publish(cacheKeys);
+    }
+
+    @Override
+    public void evictByPrefix(String cacheKeyPrefix) {
+        remoteCacheSupport.evictByPrefix(cacheKeyPrefix);
+        evictNearByPrefix(cacheKeyPrefix);
+        publish(List.of(PREFIX_MARKER, cacheKeyPrefix));
+    }
+
+    @Override
+    public boolean isLocalCache() {
+        return false;
+    }
+
+    @Override
+    public boolean isEvictable() {
+        return remoteCacheSupport.isEvictable();
+    }
+
+    /**
+     * 处理其他实例发来的失效消息
+     *
+     * @param message
+     */
+    public void onInvalidationMessage(String message) {
+        String[] parts = message.split(SEPARATOR);
+        if (parts.length < 2 || instanceId.equals(parts[0])) {
+            return;
+        }
+        if (PREFIX_MARKER.equals(parts[1])) {
+            if (parts.length == 3) {
+                evictNearByPrefix(parts[2]);
+            }
+            return;
+        }
+        evictNear(Arrays.asList(parts).subList(1, parts.length));
+    }
+
+    /**
+     * 只清除本实例的近端缓存
+     *
+     * @param cacheKeys
+     */
+    public void evictNear(Collection<String> cacheKeys) {
+        nearCache.invalidateAll(cacheKeys);
+    }
+
+    /**
+     * 只清除本实例近端缓存中以cacheKeyPrefix开头的key
+     *
+     * @param cacheKeyPrefix
+     */
+    public void evictNearByPrefix(String cacheKeyPrefix) {
+        nearCache.asMap().keySet().removeIf(cacheKey -> cacheKey.startsWith(cacheKeyPrefix));
+    }
+
+    /**
+     * 负缓存只保存在远程缓存，使用远程缓存较短的失效时间
+     */
+    private void putNear(String cacheKey, String cacheValue) {
+        if (cacheValue == null || NULL_VALUE.equals(cacheValue)) {
+            nearCache.invalidate(cacheKey);
+        } else {
+            // 从远程缓存读到的值每次都是新实例，去重后再放入近端缓存
+            nearCache.put(cacheKey, ValueInterner.intern(cacheValue));
+        }
+    }
+
+    /**
+     * 写入前远程缓存(或本实例近端缓存)中已有不同值的key，其他实例的近端缓存中可能是旧值。
+     * 本实例近端缓存中没有的key需要先读一次远程缓存，读取失败时视为全部变化
+     */
+    private List<String> changedKeys(Map<String, String> cacheValues) {
+        List<String> changedKeyList = new ArrayList<>();
+        List<String> unknownKeyList = new ArrayList<>();
+        cacheValues.forEach((cacheKey, cacheValue) -> {
+            String nearValue = nearCache.getIfPresent(cacheKey);
+            if (nearValue == null) {
+                unknownKeyList.add(cacheKey);
+            } else if (isChanged(nearValue, cacheValue)) {
+                changedKeyList.add(cacheKey);
+            }
+        });
+        if (unknownKeyList.isEmpty()) {
+            return changedKeyList;
+        }
+        Map<String, String> remoteValueMap;
+        try {
+            remoteValueMap = remoteCacheSupport.getAll(unknownKeyList);
+        } catch (RuntimeException e) {
+            log.warn("读取远程缓存的原值失败，通知其他实例清除全部写入的key", e);
+            changedKeyList.addAll(unknownKeyList);
+            return changedKeyList;
+        }
+        for (String cacheKey : unknownKeyList) {
+            if (isChanged(remoteValueMap.get(cacheKey), cacheValues.get(cacheKey))) {
+                changedKeyList.add(cacheKey);
+            }
+        }
+        return changedKeyList;
+    }
+
+    /**
+     * 负缓存不进入近端缓存，原值不存在或为负缓存时其他实例的近端缓存中没有该key
+     */
+    private static boolean isChanged(String oldValue, String newValue) {
+        return oldValue != null && !NULL_VALUE.equals(oldValue)
+                && !oldValue.equals(newValue == null ? NULL_VALUE : newValue);
+    }
+
+    private void publish(Collection<String> cacheKeys) {
+        if (invalidationPublisher == null || cacheKeys.isEmpty()) {
+            return;
+        }
+        try {
+            invalidationPublisher.accept(instanceId + SEPARATOR + String.join(SEPARATOR, cacheKeys));
+        } catch (RuntimeException e) {
+            log.error("发送近端缓存失效消息失败", e);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package cn.org.byc.translator.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * 把注册时解析出的读写方法编译成LambdaMetafactory生成的getter/setter，
+ * 调用时等同于直接调用方法，可被JIT内联。生成失败时退化为反射调用
+ */
+final class PropertyAccessors {
+
+    private static final Logger log = LoggerFactory.getLogger(PropertyAccessors.class);
+
+    private PropertyAccessors() {
+    }
+
+    /**
+     * 读方法 -> getter
+     *
+     * @param readMethod
+     * @return
+     */
+    static Function<Object, Object> getter(Method readMethod) {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(readMethod.getDeclaringClass(), MethodHandles.lookup());
+            MethodHandle handle = lookup.unreflect(readMethod);
+            CallSite callSite = LambdaMetafactory.metafactory(lookup,
+                    "apply",
+                    MethodType.methodType(Function.class),
+                    MethodType.methodType(Object.class, Object.class),
+                    handle,
+                    handle.type().wrap());
+            @SuppressWarnings("unchecked")
+            Function<Object, Object> getter = (Function<Object, Object>) callSite.getTarget().invokeExact();
+            return getter;
+        } catch (Throwable e) {
+            log.debug("生成getter失败，使用反射调用:{}", readMethod, e);
+            readMethod.setAccessible(true);
+            return obj -> invoke(readMethod, obj);
+        }
+    }
+
+    /**
+     * 写方法 -> setter
+     *
+     * @param writeMethod
+     * @return
+     */
+    static BiConsumer<Object, Object> setter(Method writeMethod) {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(writeMethod.getDeclaringClass(), MethodHandles.lookup());
+            MethodHandle handle = lookup.unreflect(writeMethod);
+            CallSite callSite = LambdaMetafactory.metafactory(lookup,
+                    "accept",
+                    MethodType.methodType(BiConsumer.class),
+                    MethodType.methodType(void.class, Object.class, Object.class),
+                    handle,
+                    handle.type().wrap().changeReturnType(void.class));
+            @SuppressWarnings("unchecked")
+            BiConsumer<Object, Object> setter = (BiConsumer<Object, Object>) callSite.getTarget().invokeExact();
+            return setter;
+        } catch (Throwable e) {
+            log.debug("生成setter失败，使用反射调用:{}", writeMethod, e);
+            writeMethod.setAccessible(true);
+            return (obj, value) -> invoke(writeMethod, obj, value);
+        }
+    }
+
+    /**
+     * 没有读方法的字段 -> getter，使用字段的MethodHandle
+     *
+     * @param field
+     * @return
+     */
+    static Function<Object, Object> getter(Field field) {
+        try {
+            MethodHandle handle = MethodHandles.privateLookupIn(field.getDeclaringClass(), MethodHandles.lookup())
+                    .unreflectGetter(field)
+                    .asType(MethodType.methodType(Object.class, Object.class));
+            return obj -> {
+                try {
+                    return handle.invokeExact(obj);
+                } catch (RuntimeException | Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new IllegalStateException(e);
+                }
+            };
+        } catch (IllegalAccessException e) {
+            log.debug("生成字段getter失败，使用反射调用:{}", field, e);
+            field.setAccessible(true);
+            return obj -> {
+                try {
+                    return field.get(obj);
+                } catch (IllegalAccessException illegalAccessException) {
+                    throw new IllegalStateException(illegalAccessException);
+                }
+            };
+        }
+    }
+
+    private static Object invoke(Method method, Object obj, Object... args) {
+        try {
+            return method.invoke(obj, args);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException(e.getTargetException());
+        }
+    }
+}
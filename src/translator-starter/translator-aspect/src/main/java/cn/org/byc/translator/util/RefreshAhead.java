@@ -0,0 +1,94 @@
+package cn.org.byc.translator.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 提前刷新：记录key最近一次从数据库加载的时间，命中缓存的key超过refreshAfter未加载时异步重新加载，
+ * 调用方继续使用当前值。只有被访问到的热点key才会刷新
+ */
+public class RefreshAhead {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshAhead.class);
+
+    private final long refreshAfterNanos;
+
+    /**
+     * cacheKey -> 最近一次加载的时间(System.nanoTime)
+     */
+    private final Cache<String, Long> loadTimeCache;
+
+    private final Executor executor;
+
+    /**
+     * @param refreshAfter 加载后超过此时间命中则提前刷新，应小于缓存的失效时间
+     * @param expireAfter  缓存的失效时间，超过此时间的加载记录不再保留
+     * @param unit
+     * @param maximumSize  最多记录的key数量
+     * @param executor     执行异步刷新
+     */
+    public RefreshAhead(long refreshAfter, long expireAfter, TimeUnit unit, long maximumSize, Executor executor) {
+        this.refreshAfterNanos = unit.toNanos(refreshAfter);
+        this.loadTimeCache = Caffeine.newBuilder()
+                .expireAfterWrite(expireAfter, unit)
+                .maximumSize(maximumSize)
+                .build();
+        this.executor = executor;
+    }
+
+    /**
+     * 记录key已从数据库加载
+     *
+     * @param cacheKeys
+     */
+    public void loaded(Collection<String> cacheKeys) {
+        long now = System.nanoTime();
+        cacheKeys.forEach(cacheKey -> loadTimeCache.put(cacheKey, now));
+    }
+
+    /**
+     * 命中缓存时判断是否需要刷新，需要刷新时同时占用该key，避免重复刷新。
+     * 本实例未加载过的key从首次命中开始计时
+     *
+     * @param cacheKey
+     * @return
+     */
+    public boolean claim(String cacheKey) {
+        long now = System.nanoTime();
+        boolean[] claimed = {false};
+        loadTimeCache.asMap().compute(cacheKey, (key, loadTime) -> {
+            if (loadTime != null && now - loadTime >= refreshAfterNanos) {
+                claimed[0] = true;
+                return now;
+            }
+            return loadTime == null ? now : loadTime;
+        });
+        return claimed[0];
+    }
+
+    /**
+     * 提交异步刷新任务，执行器已满时放弃本次刷新
+     *
+     * @param task
+     */
+    public void submit(Runnable task) {
+        try {
+            executor.execute(() -> {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    log.error("提前刷新转译缓存失败", e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.debug("提前刷新任务被拒绝", e);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package cn.org.byc.translator.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 保留最近一次查到的转译值，保留时间比缓存的失效时间长。
+ * 超过转译截止时间、熔断或查库失败时，用这里的过期值转译，不再等待缓存和数据库
+ */
+public class StaleValues {
+
+    /**
+     * cacheKey -> 最近一次查到的转译值，不保留CacheSupport.NULL_VALUE
+     */
+    private final Cache<String, String> valueCache;
+
+    /**
+     * @param expireAfter 写入后保留的时间
+     * @param unit
+     * @param maximumSize 最多保留的key数量
+     */
+    public StaleValues(long expireAfter, TimeUnit unit, long maximumSize) {
+        this.valueCache = Caffeine.newBuilder()
+                .expireAfterWrite(expireAfter, unit)
+                .maximumSize(maximumSize)
+                .build();
+    }
+
+    /**
+     * 记录从缓存或数据库查到的值
+     *
+     * @param cacheValues cacheKey -> 转译值，可以包含NULL_VALUE
+     */
+    public void record(Map<String, String> cacheValues) {
+        cacheValues.forEach((cacheKey, value) -> {
+            if (!TranslatorHelper.CacheSupport.NULL_VALUE.equals(value)) {
+                valueCache.put(cacheKey, value);
+            }
+        });
+    }
+
+    /**
+     * @param cacheKey
+     * @return 没有记录时返回null
+     */
+    public String get(String cacheKey) {
+        return valueCache.getIfPresent(cacheKey);
+    }
+
+    public void evict(Iterable<String> cacheKeys) {
+        valueCache.invalidateAll(cacheKeys);
+    }
+
+    public void evictByPrefix(String cacheKeyPrefix) {
+        valueCache.asMap().keySet().removeIf(cacheKey -> cacheKey.startsWith(cacheKeyPrefix));
+    }
+
+    public Cache<String, String> getValueCache() {
+        return valueCache;
+    }
+}
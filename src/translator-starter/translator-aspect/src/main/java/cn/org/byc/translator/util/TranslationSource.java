@@ -0,0 +1,73 @@
+package cn.org.byc.translator.util;
+
+import cn.org.byc.translator.annotation.TranslatorField;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 进程内的转译来源，如枚举、代码中的码表。注册转译字段时取一次码表，转译时直接查表，不读缓存、不查库。
+ * 转译字段用@TranslatorField的source引用来源的名称，Spring容器中的TranslationSource会自动注册
+ */
+public interface TranslationSource {
+
+    /**
+     * 来源名称，@TranslatorField的source引用此名称
+     *
+     * @return
+     */
+    String getName();
+
+    /**
+     * 注册转译字段时调用一次
+     *
+     * @param transField 转译字段的注解，同一个来源可以按dictCode等属性提供不同的码表
+     * @return 关联字段的值(toString) -> 转译值，没有时返回null
+     */
+    Map<String, String> lookupTable(TranslatorField transField);
+
+    /**
+     * 固定的码表，所有引用此来源的转译字段共用
+     *
+     * @param name
+     * @param lookupTable 关联字段的值 -> 转译值
+     * @return
+     */
+    static TranslationSource of(String name, Map<String, String> lookupTable) {
+        Map<String, String> table = Map.copyOf(lookupTable);
+        return new TranslationSource() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public Map<String, String> lookupTable(TranslatorField transField) {
+                return table;
+            }
+        };
+    }
+
+    /**
+     * 代码中的多个字典，按转译字段的dictCode取码表
+     *
+     * @param name
+     * @param dictionaries dictCode -> (字典值CODE -> 显示值)
+     * @return
+     */
+    static TranslationSource ofDictionaries(String name, Map<String, Map<String, String>> dictionaries) {
+        Map<String, Map<String, String>> tables = dictionaries.entrySet().stream()
+                .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, e -> Map.copyOf(e.getValue())));
+        return new TranslationSource() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public Map<String, String> lookupTable(TranslatorField transField) {
+                return tables.get(transField.dictCode());
+            }
+        };
+    }
+}
@@ -0,0 +1,54 @@
+package cn.org.byc.translator.util;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * 一次序列化过程中查询到的转译值，按对象标识和转译字段名保存，不写入对象本身。
+ * 并行查库时会从多个线程写入
+ *
+ * @see TranslatorHelper#resolveTranslations(Object, Translations)
+ */
+public class Translations {
+
+    /**
+     * 已收集过的对象 -> 转译字段名 -> 转译值
+     */
+    private final Map<Object, Map<String, String>> valueMap = new IdentityHashMap<>();
+
+    /**
+     * 多次查询之间的去重缓存，缓存是远程缓存时使用
+     */
+    final Map<String, String> dedupMap = new HashMap<>();
+
+    /**
+     * 对象是否已收集过，收集过但没有转译值的字段不再查询
+     *
+     * @param target
+     * @return
+     */
+    public synchronized boolean contains(Object target) {
+        return valueMap.containsKey(target);
+    }
+
+    /**
+     * 获取转译值
+     *
+     * @param target
+     * @param fieldName 转译字段名
+     * @return 没有转译值时返回null
+     */
+    public synchronized String get(Object target, String fieldName) {
+        Map<String, String> fieldValueMap = valueMap.get(target);
+        return fieldValueMap == null ? null : fieldValueMap.get(fieldName);
+    }
+
+    synchronized void add(Object target) {
+        valueMap.computeIfAbsent(target, e -> new HashMap<>(4));
+    }
+
+    synchronized void put(Object target, String fieldName, String value) {
+        valueMap.computeIfAbsent(target, e -> new HashMap<>(4)).put(fieldName, value);
+    }
+}
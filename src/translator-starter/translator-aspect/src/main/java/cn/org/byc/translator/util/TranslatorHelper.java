@@ -2,32 +2,60 @@ package cn.org.byc.translator.util;
 
 import cn.org.byc.translator.annotation.TranslatorField;
 import cn.org.byc.translator.annotation.TranslatorNested;
+import cn.org.byc.translator.processor.FieldDescriptor;
+import cn.org.byc.translator.processor.TranslatorDescriptor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
 import org.springframework.util.StringUtils;
 
 import javax.sql.DataSource;
 import java.beans.Introspector;
 import java.beans.PropertyDescriptor;
 import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.sql.Connection;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.text.MessageFormat;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 
 public class TranslatorHelper {
@@ -35,9 +63,37 @@ public class TranslatorHelper {
     private static final Logger log = LoggerFactory.getLogger(TranslatorHelper.class);
 
 
-    private final HashMap<Class<?>, RegisterInfo> REGISTER_INFO_MAP = new HashMap<>(32);
+    /**
+     * 类型 -> 转译信息。第一个调用方注册，同时注册同一类型的调用方等待其完成，不同类型之间互不阻塞
+     */
+    private final ConcurrentHashMap<Class<?>, CompletableFuture<RegisterInfo>> REGISTER_INFO_MAP =
+            new ConcurrentHashMap<>(32);
+
+    /**
+     * 合并后的转译器缓存多列的值时，列之间的分隔符
+     */
+    private static final char COLUMN_SEPARATOR = '\u001F';
+
+    /**
+     * 合并后的转译器缓存多列的值时，值为null的列
+     */
+    private static final String NULL_COLUMN = "\u0000";
 
-    private final ThreadLocal<Map<String, String>> DATA_CACHE_TL = new ThreadLocal<>();
+    /**
+     * 十进制数值的字符串形式
+     */
+    private static final Pattern NUMBER_PATTERN = Pattern.compile("[+-]?\\d+(\\.\\d+)?");
+
+    /**
+     * 正在查库的key，同一个key的并发未命中共用一次查询
+     */
+    private final ConcurrentHashMap<String, CompletableFuture<String>> IN_FLIGHT_MAP = new ConcurrentHashMap<>();
+
+    /**
+     * 进程内转译来源，名称 -> 来源，默认注册枚举来源
+     */
+    private final ConcurrentHashMap<String, TranslationSource> SOURCE_MAP = new ConcurrentHashMap<>(
+            Map.of(EnumTranslationSource.NAME, new EnumTranslationSource()));
 
     private DataSource dataSource;
 
@@ -47,6 +103,64 @@ public class TranslatorHelper {
 
     private CacheSupport cacheSupport;
 
+    private String dictBatchQuerySql;
+
+    private String dictBatchQuerySqlEng;
+
+    /**
+     * 同时查询中英文显示值，用于合并同一个字典的转译器，为空则不合并
+     */
+    private String dictFusedQuerySql;
+
+    private String dictFusedBatchQuerySql;
+
+    private int batchSize = 500;
+
+    /**
+     * Stream、Flux等流式返参每个窗口的元素数
+     */
+    private int windowSize = 500;
+
+    /**
+     * 流式转译时去重缓存最多保留的key数量
+     */
+    private int streamDedupMaxSize = 10000;
+
+    private DictionaryStore dictionaryStore;
+
+    private RefreshAhead refreshAhead;
+
+    /**
+     * 并行查库的执行器，为null时在调用线程串行查库
+     */
+    private Executor parallelExecutor;
+
+    /**
+     * 并发查库数，没有批量查询模板的转译器按此拆分key
+     */
+    private int parallelism = 1;
+
+    private TranslatorMetrics metrics = TranslatorMetrics.NOOP;
+
+    /**
+     * 每次转译的默认时限，单位为毫秒，小于等于0时不限时
+     */
+    private long timeout;
+
+    /**
+     * 超时、熔断或出错时使用的过期值，为null时不转译
+     */
+    private StaleValues staleValues;
+
+    /**
+     * 连续失败多少次后熔断，小于等于0时不熔断。缓存共用一个熔断器，数据库每个转译器一个
+     */
+    private int circuitBreakerFailureThreshold;
+
+    private long circuitBreakerCoolDownNanos;
+
+    private CircuitBreaker cacheBreaker;
+
     public TranslatorHelper(DataSource dataSource, String dictQuerySql, String dictQuerySqlEng, CacheSupport cacheSupport) {
         this.dataSource = dataSource;
         this.dictQuerySql = dictQuerySql;
@@ -55,43 +169,388 @@ public class TranslatorHelper {
     }
 
     public void startTrans(Object result){
+        startTrans(result, timeout);
+    }
+
+    /**
+     * 限时转译，超过时限后剩余的key使用过期值或不转译
+     *
+     * @param result
+     * @param timeoutMillis 本次转译的时限，单位为毫秒，小于等于0时不限时
+     */
+    public void startTrans(Object result, long timeoutMillis) {
+        startTrans(result, timeoutMillis, Set.of());
+    }
+
+    /**
+     * 只转译指定分组的字段，其余字段不查询，到达不了这些字段的嵌套对象不遍历
+     *
+     * @param result
+     * @param groups 为空时转译所有字段
+     */
+    public void startTrans(Object result, String... groups) {
+        startTrans(result, timeout, groups(groups));
+    }
+
+    /**
+     * @param result
+     * @param timeoutMillis 本次转译的时限，单位为毫秒，小于等于0时不限时
+     * @param groups        为空时转译所有字段
+     */
+    public void startTrans(Object result, long timeoutMillis, Set<String> groups) {
         if (result == null){
             return;
         }
 
-        if (!cacheSupport.isLocalCache()){
-            try {
-                DATA_CACHE_TL.set(new HashMap<>());
-                handle(result);
-            } finally {
-                DATA_CACHE_TL.remove();
+        translate(result, cacheSupport.isLocalCache() ? null : new HashMap<>(), timeoutMillis, Set.copyOf(groups));
+    }
+
+    /**
+     * 按窗口转译Stream：消费时每攒够windowSize个元素转译一次，同一窗口内的key批量查询
+     *
+     * @param stream
+     * @return 转译后的Stream，关闭时同时关闭原Stream
+     * @see #startTransIterator(Iterator)
+     */
+    public <T> Stream<T> startTransStream(Stream<T> stream) {
+        return startTransStream(stream, timeout);
+    }
+
+    /**
+     * @param stream
+     * @param timeoutMillis 每个窗口的转译时限
+     * @return
+     */
+    public <T> Stream<T> startTransStream(Stream<T> stream, long timeoutMillis) {
+        return startTransStream(stream, timeoutMillis, Set.of());
+    }
+
+    /**
+     * @param stream
+     * @param timeoutMillis 每个窗口的转译时限
+     * @param groups        只转译这些分组的字段，为空时转译所有字段
+     * @return
+     */
+    public <T> Stream<T> startTransStream(Stream<T> stream, long timeoutMillis, Set<String> groups) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(startTransIterator(stream.iterator(), timeoutMillis, groups), Spliterator.ORDERED), false)
+                .onClose(stream::close);
+    }
+
+    /**
+     * 流式转译，用于导出等数据量很大的场景：消费时每攒够windowSize个元素转译一次，
+     * 只持有当前窗口的元素，去重缓存最多保留streamDedupMaxSize个key并淘汰最久未使用的，内存占用与总行数无关。
+     * JDBC游标可以先包装成Iterator或Stream，如JdbcTemplate.queryForStream、MyBatis的Cursor
+     *
+     * @param iterator
+     * @return 转译后的Iterator
+     */
+    public <T> Iterator<T> startTransIterator(Iterator<T> iterator) {
+        return startTransIterator(iterator, timeout);
+    }
+
+    /**
+     * @param iterator
+     * @param timeoutMillis 每个窗口的转译时限
+     * @return
+     */
+    public <T> Iterator<T> startTransIterator(Iterator<T> iterator, long timeoutMillis) {
+        return startTransIterator(iterator, timeoutMillis, Set.of());
+    }
+
+    /**
+     * @param iterator
+     * @param timeoutMillis 每个窗口的转译时限
+     * @param groups        只转译这些分组的字段，为空时转译所有字段
+     * @return
+     */
+    public <T> Iterator<T> startTransIterator(Iterator<T> iterator, long timeoutMillis, Set<String> groups) {
+        Set<String> groupSet = Set.copyOf(groups);
+        Map<String, String> dedupMap = cacheSupport.isLocalCache() ? null : new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > streamDedupMaxSize;
             }
-        } else {
-            handle(result);
-        }
+        };
+        return new Iterator<>() {
+            private final List<T> window = new ArrayList<>(windowSize);
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                if (index < window.size()) {
+                    return true;
+                }
+                window.clear();
+                index = 0;
+                while (window.size() < windowSize && iterator.hasNext()) {
+                    window.add(iterator.next());
+                }
+                if (!window.isEmpty()) {
+                    translate(window, dedupMap, timeoutMillis, groupSet);
+                }
+                return !window.isEmpty();
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return window.get(index++);
+            }
+        };
     }
 
     /**
-     * 区分是否集合分别进行处理
+     * 使用指定的去重缓存转译
+     *
+     * @param result
+     * @param dedupMap      为null时不使用去重缓存
+     * @param timeoutMillis
+     * @param groups        为空时转译所有字段
+     */
+    private void translate(Object result, Map<String, String> dedupMap, long timeoutMillis, Set<String> groups) {
+        // 截止时间从收集开始计算
+        TransBatch batch = new TransBatch(null, dedupMap, Deadline.after(timeoutMillis), groups);
+        collect(result, batch);
+        batch.resolve();
+    }
+
+    /**
+     * 先遍历整个对象图收集待转译的key，再按转译器批量查询并回填
      *
      * @param result
      */
     public void handle(Object result) {
-        if (result instanceof Map map) {
-            map.values().forEach(this::handleSimple);
-        } else if (result instanceof Collection collection) {
-            collection.forEach(this::handleSimple);
-        } else {
-            handleSimple(result);
+        translate(result, null, timeout, Set.of());
+    }
+
+    /**
+     * 收集并查询对象图的转译值，记录到translations中，不写入对象。用于序列化时转译，
+     * 没有setter的转译字段(不可变类、record)也能转译
+     *
+     * @param result
+     * @param translations 同一次序列化中多次调用时传入同一个
+     */
+    public void resolveTranslations(Object result, Translations translations) {
+        if (result == null) {
+            return;
+        }
+        TransBatch batch = new TransBatch(translations,
+                cacheSupport.isLocalCache() ? null : translations.dedupMap, Deadline.after(timeout), Set.of());
+        collect(result, batch);
+        batch.resolve();
+    }
+
+    /**
+     * 缓存是否支持清除，不支持时evict等方法抛出UnsupportedOperationException
+     *
+     * @return
+     */
+    public boolean isEvictable() {
+        return cacheSupport.isEvictable();
+    }
+
+    /**
+     * 清除缓存的转译值，下次转译时重新查库
+     *
+     * @param cacheKeys 缓存key，即cacheKeyPrefix加关联字段的值
+     */
+    public void evict(Collection<String> cacheKeys) {
+        if (!cacheKeys.isEmpty()) {
+            Collection<String> cacheKeySet = withFusedCacheKeys(cacheKeys);
+            cacheSupport.evict(cacheKeySet);
+            if (staleValues != null) {
+                staleValues.evict(cacheKeySet);
+            }
+        }
+    }
+
+    public void evict(String cacheKey) {
+        evict(List.of(cacheKey));
+    }
+
+    /**
+     * 清除一个转译器(cacheKeyPrefix相同)的所有缓存
+     *
+     * @param cacheKeyPrefix
+     */
+    public void evictByPrefix(String cacheKeyPrefix) {
+        Assert.hasText(cacheKeyPrefix, "cacheKeyPrefix不能为空");
+        Set<String> prefixSet = new LinkedHashSet<>();
+        prefixSet.add(cacheKeyPrefix);
+        prefixSet.addAll(fusedCacheKeyPrefixes(cacheKeyPrefix));
+        for (String prefix : prefixSet) {
+            cacheSupport.evictByPrefix(prefix);
+            if (staleValues != null) {
+                staleValues.evictByPrefix(prefix);
+            }
+        }
+    }
+
+    /**
+     * 清除一个字典的缓存(中英文)，已预加载的字典重新刷新
+     *
+     * @param dictCode
+     */
+    public void evictDict(String dictCode) {
+        dictCacheKeyPrefixes(dictCode).forEach(this::evictByPrefix);
+        refreshDictionary(dictCode);
+    }
+
+    /**
+     * 清除字典中一个值的缓存(中英文)，已预加载的字典重新刷新
+     *
+     * @param dictCode
+     * @param dictDataCode
+     */
+    public void evictDict(String dictCode, String dictDataCode) {
+        evict(dictCacheKeyPrefixes(dictCode).stream().map(e -> e.concat(dictDataCode)).toList());
+        refreshDictionary(dictCode);
+    }
+
+    /**
+     * 字典的缓存key前缀：默认的中英文前缀，以及已注册的转译器自定义的前缀
+     */
+    private Set<String> dictCacheKeyPrefixes(String dictCode) {
+        Assert.hasText(dictCode, "dictCode不能为空");
+        Set<String> prefixSet = new LinkedHashSet<>();
+        prefixSet.add("dict:" + dictCode + ":");
+        prefixSet.add("dict:eng:" + dictCode + ":");
+        prefixSet.add(fusedDictCacheKeyPrefix(dictCode));
+        for (RegisterInfo registerInfo : registeredInfos()) {
+            for (Translator translator : registerInfo.translatorList) {
+                if (dictCode.equals(translator.dictCode)) {
+                    prefixSet.add(translator.cacheKeyPrefix);
+                }
+            }
+        }
+        return prefixSet;
+    }
+
+    /**
+     * 加上已注册的合并转译器中对应的缓存key
+     */
+    private Collection<String> withFusedCacheKeys(Collection<String> cacheKeys) {
+        Set<String> cacheKeySet = new LinkedHashSet<>(cacheKeys);
+        for (Translator translator : fusedTranslators()) {
+            for (String memberPrefix : translator.memberCacheKeyPrefixes) {
+                for (String cacheKey : cacheKeys) {
+                    if (cacheKey.startsWith(memberPrefix)) {
+                        cacheKeySet.add(translator.cacheKeyPrefix + cacheKey.substring(memberPrefix.length()));
+                    }
+                }
+            }
+        }
+        return cacheKeySet;
+    }
+
+    /**
+     * 已注册的合并转译器中，合并前的前缀以cacheKeyPrefix开头的合并后的前缀
+     */
+    private Set<String> fusedCacheKeyPrefixes(String cacheKeyPrefix) {
+        Set<String> prefixSet = new LinkedHashSet<>();
+        for (Translator translator : fusedTranslators()) {
+            if (translator.cacheKeyPrefix.startsWith(cacheKeyPrefix)) {
+                continue;
+            }
+            for (String memberPrefix : translator.memberCacheKeyPrefixes) {
+                if (memberPrefix.startsWith(cacheKeyPrefix)) {
+                    prefixSet.add(translator.cacheKeyPrefix);
+                }
+            }
+        }
+        return prefixSet;
+    }
+
+    private List<Translator> fusedTranslators() {
+        List<Translator> fusedList = new ArrayList<>();
+        for (RegisterInfo registerInfo : registeredInfos()) {
+            for (Translator translator : registerInfo.translatorList) {
+                if (translator.memberCacheKeyPrefixes != null) {
+                    fusedList.add(translator);
+                }
+            }
+        }
+        return fusedList;
+    }
+
+    /**
+     * 已完成注册的类型的转译信息，不等待正在注册的类型
+     */
+    private List<RegisterInfo> registeredInfos() {
+        List<RegisterInfo> registerInfoList = new ArrayList<>(REGISTER_INFO_MAP.size());
+        for (CompletableFuture<RegisterInfo> future : REGISTER_INFO_MAP.values()) {
+            RegisterInfo registerInfo = future.isCompletedExceptionally() ? null : future.getNow(null);
+            if (registerInfo != null) {
+                registerInfoList.add(registerInfo);
+            }
+        }
+        return registerInfoList;
+    }
+
+    private void refreshDictionary(String dictCode) {
+        if (dictionaryStore != null && dictionaryStore.contains(dictCode)) {
+            dictionaryStore.refresh();
         }
     }
 
+    /**
+     * 类型的转译字段名，包括继承的
+     *
+     * @param type
+     * @return
+     */
+    public List<String> translatedFieldNames(Class<?> type) {
+        return registerInfo(type).translatorList.stream().flatMap(e -> Arrays.stream(e.fieldNames)).toList();
+    }
+
     /**
      * 处理非集合类
      *
      * @param obj
      */
     public void handleSimple(Object obj) {
+        TransBatch batch = new TransBatch(null, null, Deadline.after(timeout), Set.of());
+        collectSimple(obj, batch);
+        batch.resolve();
+    }
+
+    /**
+     * 区分是否容器分别收集，容器(Map、Collection、对象数组、Optional)可以多层嵌套
+     *
+     * @param result
+     * @param batch
+     */
+    private void collect(Object result, TransBatch batch) {
+        if (result instanceof Map<?, ?> map) {
+            if (batch.enter(map)) {
+                map.values().forEach(e -> collect(e, batch));
+            }
+        } else if (result instanceof Collection<?> collection) {
+            if (batch.enter(collection)) {
+                collection.forEach(e -> collect(e, batch));
+            }
+        } else if (result instanceof Object[] array) {
+            if (batch.enter(array)) {
+                for (Object e : array) {
+                    collect(e, batch);
+                }
+            }
+        } else if (result instanceof Optional<?> optional) {
+            optional.ifPresent(e -> collect(e, batch));
+        } else {
+            collectSimple(result, batch);
+        }
+    }
+
+    /**
+     * 收集非集合类的待转译key
+     *
+     * @param obj
+     * @param batch
+     */
+    private void collectSimple(Object obj, TransBatch batch) {
         if (obj == null
                 || ClassUtils.isPrimitiveOrWrapper(obj.getClass())
                 || String.class.isAssignableFrom(obj.getClass())) {
@@ -99,65 +558,154 @@ public class TranslatorHelper {
         }
 
         Class<?> objType = obj.getClass();
+        batch.visited++;
         try {
-            ensureRegistered(objType);
-            RegisterInfo registerInfo = REGISTER_INFO_MAP.get(objType);
-            registerInfo.translatorList.forEach(e -> e.transAndSetValue(obj));
-            registerInfo.transNestList.forEach(e -> {
-                try {
-                    handle(e.get(obj));
-                } catch (IllegalAccessException illegalAccessException) {
-                    log.error(illegalAccessException.getMessage(), e);
-                }
-            });
+            GroupView groupView = ensureRegistered(objType, batch.groups);
+            // 从该类型出发到达不了任何(所选分组的)转译字段，整个子图跳过
+            if (!groupView.translatable) {
+                return;
+            }
+            // 有嵌套字段的对象才可能成环，按对象标识只遍历一次
+            if (!groupView.activeNestList.isEmpty() && !batch.enter(obj)) {
+                return;
+            }
+            if (batch.translations != null && !groupView.translatorList.isEmpty()) {
+                batch.translations.add(obj);
+            }
+            groupView.translatorList.forEach(e -> e.collect(obj, batch));
+            groupView.activeNestList.forEach(e -> collect(e.getter.apply(obj), batch));
         } catch (Exception e) {
             log.error(e.getMessage(), e);
         }
     }
 
     /**
-     * 确保类的转译信息已经注册
+     * 确保类的转译信息已经注册，并已计算所选分组的可达性
      *
      * @param type
-     * @throws Exception
+     * @param groups 为空时为所有字段
+     * @return
      */
-    private void ensureRegistered(Class<?> type) {
-        if (REGISTER_INFO_MAP.containsKey(type)) {
-            return;
+    private GroupView ensureRegistered(Class<?> type, Set<String> groups) {
+        RegisterInfo registerInfo = registerInfo(type);
+        GroupView groupView = registerInfo.groupView(groups);
+        if (groupView == null) {
+            // 可达性只取决于已注册的转译信息，并发计算的结果相同，重复赋值无妨
+            List<Translator> translatorList = registerInfo.translators(groups);
+            List<NestedAccessor> activeNestList = new ArrayList<>();
+            for (NestedAccessor nestedAccessor : registerInfo.transNestList) {
+                if (nestedAccessor.closedType == null || isTranslatable(nestedAccessor.closedType, groups)) {
+                    activeNestList.add(nestedAccessor);
+                }
+            }
+            groupView = new GroupView(translatorList, activeNestList);
+            registerInfo.putGroupView(groups, groupView);
+        }
+        return groupView;
+    }
+
+    /**
+     * 取类型的转译信息，未注册时注册。只会等待父类的注册，父类链无环，不会死锁
+     *
+     * @param type
+     * @return
+     */
+    private RegisterInfo registerInfo(Class<?> type) {
+        CompletableFuture<RegisterInfo> future = REGISTER_INFO_MAP.get(type);
+        if (future == null) {
+            CompletableFuture<RegisterInfo> registering = new CompletableFuture<>();
+            future = REGISTER_INFO_MAP.putIfAbsent(type, registering);
+            if (future == null) {
+                future = registering;
+                try {
+                    // JDK的类型不会有转译字段，不用反射
+                    registering.complete(isJdkType(type) ? new RegisterInfo(List.of(), List.of()) : registerClass(type));
+                } catch (Throwable e) {
+                    // 下次重新注册
+                    REGISTER_INFO_MAP.remove(type, registering);
+                    registering.completeExceptionally(e);
+                    throw e;
+                }
+            }
+        }
+        return future.join();
+    }
+
+    /**
+     * 从类型出发沿嵌套字段能否到达转译字段。嵌套字段的类型不确定(接口、可被继承的类、泛型参数等)时视为可达，
+     * 由运行时的实际类型再判断
+     *
+     * @param type   确定的类型
+     * @param groups 为空时为所有字段
+     * @return
+     */
+    private boolean isTranslatable(Class<?> type, Set<String> groups) {
+        GroupView known = registerInfo(type).groupView(groups);
+        if (known != null) {
+            return known.translatable;
         }
-        synchronized (REGISTER_INFO_MAP) {
-            registerClass(type);
+        Set<Class<?>> seen = new HashSet<>();
+        Deque<Class<?>> queue = new ArrayDeque<>();
+        seen.add(type);
+        queue.add(type);
+        while (!queue.isEmpty()) {
+            Class<?> current = queue.poll();
+            if (isJdkType(current)) {
+                continue;
+            }
+            RegisterInfo registerInfo = registerInfo(current);
+            GroupView groupView = registerInfo.groupView(groups);
+            if (groupView != null) {
+                if (groupView.translatable) {
+                    return true;
+                }
+                continue;
+            }
+            if (!registerInfo.translators(groups).isEmpty()) {
+                return true;
+            }
+            for (NestedAccessor nestedAccessor : registerInfo.transNestList) {
+                if (nestedAccessor.closedType == null) {
+                    return true;
+                }
+                if (seen.add(nestedAccessor.closedType)) {
+                    queue.add(nestedAccessor.closedType);
+                }
+            }
         }
+        return false;
     }
 
     /**
-     * 注册类的转译信息
+     * 解析类的转译信息
      *
      * @param type
-     * @throws Exception
+     * @return
      */
-    private void registerClass(Class<?> type) {
+    private RegisterInfo registerClass(Class<?> type) {
         Class<?> superClass = type.getSuperclass();
 
         // 注册父类
-        if (!Object.class.equals(superClass)) {
-            if (!REGISTER_INFO_MAP.containsKey(superClass)) {
-                registerClass(superClass);
-            }
-        }
+        RegisterInfo superClassRegisterInfo = superClass == null || Object.class.equals(superClass)
+                ? null : registerInfo(superClass);
 
         List<Translator> translatorList = new ArrayList<>();
-        List<Field> transNestedList = new ArrayList<>();
+        List<NestedAccessor> transNestedList = new ArrayList<>();
 
         try {
-            Map<String, PropertyDescriptor> propertyDescriptorMap =
-                    Arrays.stream(Introspector.getBeanInfo(type, Object.class).getPropertyDescriptors())
-                            .collect(Collectors.toMap(PropertyDescriptor::getName, Function.identity()));
-            for (Field field : type.getDeclaredFields()) {
-                registerField(type, field, propertyDescriptorMap, translatorList, transNestedList);
+            TranslatorDescriptor descriptor = findDescriptor(type);
+            if (descriptor != null) {
+                registerDescriptor(type, descriptor, translatorList, transNestedList);
+            } else {
+                Map<String, PropertyDescriptor> propertyDescriptorMap =
+                        Arrays.stream(Introspector.getBeanInfo(type, Object.class).getPropertyDescriptors())
+                                .collect(Collectors.toMap(PropertyDescriptor::getName, Function.identity()));
+                for (Field field : type.getDeclaredFields()) {
+                    registerField(type, field, propertyDescriptorMap, translatorList, transNestedList);
+                }
             }
+            translatorList = fuse(type, translatorList);
             // 把父类的注册信息复制过来,让转译字段能被继承
-            RegisterInfo superClassRegisterInfo = REGISTER_INFO_MAP.get(superClass);
             if (superClassRegisterInfo != null) {
                 translatorList.addAll(superClassRegisterInfo.translatorList);
                 transNestedList.addAll(superClassRegisterInfo.transNestList);
@@ -165,7 +713,7 @@ public class TranslatorHelper {
         } catch (Exception e) {
             log.error("类型:" + type.getName() + "注册转译信息失败", e);
         }
-        REGISTER_INFO_MAP.put(type, new RegisterInfo(translatorList, transNestedList));
+        return new RegisterInfo(translatorList, transNestedList);
     }
 
     /**
@@ -181,168 +729,1598 @@ public class TranslatorHelper {
                                Field field,
                                Map<String, PropertyDescriptor> propertyDescriptorMap,
                                Collection<Translator> translatorList,
-                               List<Field> transNestedList) {
+                               List<NestedAccessor> transNestedList) {
         try {
             if (field.isAnnotationPresent(TranslatorField.class)) {
                 TranslatorField transField = field.getAnnotation(TranslatorField.class);
                 String[] associateFieldName = transField.associateField();
 
-                Method destFieldWriteMethod = propertyDescriptorMap.get(field.getName()).getWriteMethod();
-                Method[] srcFieldReadMethods = Arrays.stream(associateFieldName).map(fieldName -> {
+                PropertyDescriptor destFieldPd = propertyDescriptorMap.get(field.getName());
+                BiConsumer<Object, Object> destFieldSetter = null;
+                if (destFieldPd != null && destFieldPd.getWriteMethod() != null) {
+                    destFieldSetter = PropertyAccessors.setter(destFieldPd.getWriteMethod());
+                } else {
+                    log.debug("类型:{}的转译字段:{}没有setter，只能在序列化时转译", type.getName(), field.getName());
+                }
+                @SuppressWarnings("unchecked")
+                Function<Object, Object>[] srcFieldGetters = Arrays.stream(associateFieldName).map(fieldName -> {
                     PropertyDescriptor fieldPd = propertyDescriptorMap.get(fieldName);
-                    Assert.notNull(fieldPd, String.format("属性转义注册失败,类型:%s,转义字段:%s的关联字段:%s不存在",
+                    if (fieldPd != null && fieldPd.getReadMethod() != null) {
+                        return PropertyAccessors.getter(fieldPd.getReadMethod());
+                    }
+                    // 没有getter时(如record)直接读字段
+                    Field associateField = ReflectionUtils.findField(type, fieldName);
+                    Assert.notNull(associateField, String.format("属性转义注册失败,类型:%s,转义字段:%s的关联字段:%s不存在",
                             type.getSimpleName(), field.getName(), fieldName));
-                    return fieldPd.getReadMethod();
-                }).toArray(Method[]::new);
+                    return PropertyAccessors.getter(associateField);
+                }).toArray(Function[]::new);
 
                 String dictCode = transField.dictCode();
                 String sql = transField.sql();
-                String cacheKeyPrefix = transField.cacheKeyPrefix();
-                if (isEmpty(dictCode) && isEmpty(sql)) {
-                    log.error("属性转义注册失败，类型：{}，转义字段：{}未指定查询方式", type.getSimpleName(), field.getName());
-                } else {
-                    if (!isEmpty(dictCode)) {
-                        // 约定：如果字段名以enName或engName结尾（不区分大小写)则自动使用字典的英文名注入字段
-                        if (StringUtils.endsWithIgnoreCase(field.getName(), "enName") ||
-                                StringUtils.endsWithIgnoreCase(field.getName(), "engName")) {
-                            sql = String.format(dictQuerySqlEng, dictCode);
-                            if (isEmpty(cacheKeyPrefix)) {
-                                cacheKeyPrefix = "dict:" + dictCode + ":";
-                            }
-                        } else {
-                            sql = String.format(dictQuerySql, dictCode);
-                            if (isEmpty(cacheKeyPrefix)) {
-                                cacheKeyPrefix = "dict:eng:" + dictCode + ":";
-                            }
-                        }
-                    } else {
-                        String[] sqlTemplateParam = transField.sqlTemplateParam();
-                        if (sqlTemplateParam.length > 0) {
-                            sql = MessageFormat.format(sql, (Object[]) sqlTemplateParam);
-                        }
+                String batchSql = transField.batchSql();
+                String[] sqlTemplateParam = transField.sqlTemplateParam();
+                if (isEmpty(dictCode) && sqlTemplateParam.length > 0) {
+                    sql = MessageFormat.format(sql, (Object[]) sqlTemplateParam);
+                    if (!isEmpty(batchSql)) {
+                        batchSql = MessageFormat.format(batchSql, (Object[]) sqlTemplateParam);
                     }
-                    Translator translator = new Translator(destFieldWriteMethod,
-                            srcFieldReadMethods,
-                            sql,
-                            cacheKeyPrefix);
+                }
+                Translator translator = newTranslator(type, field.getName(), destFieldSetter, srcFieldGetters,
+                        dictCode, sql, batchSql, transField.cacheKeyPrefix());
+                if (translator != null) {
                     translatorList.add(translator);
                 }
 
-            } else if (field.isAnnotationPresent(TranslatorNested.class)) {
-                field.setAccessible(true);
-                transNestedList.add(field);
+            } else if (field.isAnnotationPresent(TranslatorNested.class) || isContainer(field.getType())) {
                 // 容器类型也注册一下
-            } else if ((List.class.isAssignableFrom(field.getType())) || Map.class.isAssignableFrom(field.getType())) {
-                field.setAccessible(true);
-                transNestedList.add(field);
+                transNestedList.add(new NestedAccessor(nestedGetter(field, propertyDescriptorMap),
+                        closedType(field.getGenericType())));
             }
         } catch (Exception e) {
             log.error(String.format("类型:%s, 解析属性:%s转译信息失败", type.getName(), field.getName()), e);
         }
     }
 
+    /**
+     * 合并类中查询同一行数据的转译器，合并后一次查询取回所有列，每个key一个缓存：
+     * <ul>
+     *     <li>字典和关联字段相同、未自定义缓存key前缀的字典转译器，同时查询中英文显示值</li>
+     *     <li>sql模板和关联字段相同、只有一个模板参数且参数为查询列的转译器，查询各转译器的列</li>
+     * </ul>
+     *
+     * @param type
+     * @param translatorList 类中声明的字段的转译器
+     * @return
+     */
+    private List<Translator> fuse(Class<?> type, List<Translator> translatorList) {
+        if (translatorList.size() < 2) {
+            return translatorList;
+        }
+        // 分组key -> 转译器，不能合并的转译器以自身为key
+        Map<Object, List<Translator>> groupMap = new LinkedHashMap<>();
+        Map<Translator, String> columnMap = new HashMap<>();
+        for (Translator translator : translatorList) {
+            String[] fusion = fusion(type, translator);
+            if (fusion == null) {
+                groupMap.put(translator, List.of(translator));
+            } else {
+                groupMap.computeIfAbsent(fusion[0], e -> new ArrayList<>()).add(translator);
+                columnMap.put(translator, fusion[1]);
+            }
+        }
+        if (groupMap.size() == translatorList.size()) {
+            return translatorList;
+        }
+        List<Translator> fusedList = new ArrayList<>(groupMap.size());
+        groupMap.forEach((groupKey, memberList) -> {
+            if (memberList.size() == 1) {
+                fusedList.add(memberList.get(0));
+            } else {
+                Field field = ReflectionUtils.findField(type, memberList.get(0).fieldNames[0]);
+                fusedList.add(fusedTranslator(field.getAnnotation(TranslatorField.class), memberList, columnMap));
+            }
+        });
+        return fusedList;
+    }
+
+    /**
+     * 转译器的合并分组
+     *
+     * @return [分组key, 查询列]，不能合并时返回null
+     */
+    private String[] fusion(Class<?> type, Translator translator) {
+        if (translator.fieldNames.length != 1 || translator.lookupTable != null) {
+            return null;
+        }
+        Field field = ReflectionUtils.findField(type, translator.fieldNames[0]);
+        TranslatorField transField = field == null ? null : field.getAnnotation(TranslatorField.class);
+        if (transField == null) {
+            return null;
+        }
+        String associateFields = String.join(",", transField.associateField());
+        if (!isEmpty(transField.dictCode())) {
+            if (isEmpty(dictFusedQuerySql) || !isEmpty(transField.cacheKeyPrefix())) {
+                return null;
+            }
+            return new String[]{"dict\n" + transField.dictCode() + "\n" + associateFields, null};
+        }
+        String[] sqlTemplateParam = transField.sqlTemplateParam();
+        if (sqlTemplateParam.length != 1 || !isColumnTemplate(transField.sql())
+                || (!isEmpty(transField.batchSql()) && !isColumnTemplate(transField.batchSql()))) {
+            return null;
+        }
+        return new String[]{"sql\n" + transField.sql() + "\n" + transField.batchSql() + "\n" + associateFields,
+                sqlTemplateParam[0].trim()};
+    }
+
+    /**
+     * sql模板只有一个参数{0}，且在select和from之间
+     */
+    private static boolean isColumnTemplate(String sql) {
+        int index = sql.indexOf("{0}");
+        return index >= 0
+                && index == sql.lastIndexOf("{0}")
+                && !sql.contains("{1}")
+                && index < sql.toLowerCase().indexOf(" from ");
+    }
+
+    private Translator fusedTranslator(TranslatorField transField, List<Translator> memberList, Map<Translator, String> columnMap) {
+        Translator fused = newFusedTranslator(transField, memberList, columnMap);
+        // 合并后一次查询取回所有字段的值，选中任一字段的分组时整体转译，不增加查询
+        Set<String> groupSet = new LinkedHashSet<>();
+        memberList.forEach(member -> groupSet.addAll(member.groups));
+        fused.groups = Set.copyOf(groupSet);
+        return fused;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Translator newFusedTranslator(TranslatorField transField, List<Translator> memberList, Map<Translator, String> columnMap) {
+        String[] fieldNames = new String[memberList.size()];
+        BiConsumer<Object, Object>[] fieldSetters = new BiConsumer[memberList.size()];
+        int[] columnIndexes = new int[memberList.size()];
+        Set<String> memberPrefixSet = new LinkedHashSet<>();
+        List<String> columnList = new ArrayList<>();
+        Translator first = memberList.get(0);
+        for (int i = 0; i < memberList.size(); i++) {
+            Translator member = memberList.get(i);
+            fieldNames[i] = member.fieldNames[0];
+            fieldSetters[i] = member.fieldSetters[0];
+            memberPrefixSet.add(member.cacheKeyPrefix);
+            if (first.dictCode != null) {
+                // 查询结果的两列依次为中文、英文显示值
+                columnIndexes[i] = member.columnEngs[0] ? 1 : 0;
+            } else {
+                String column = columnMap.get(member);
+                if (!columnList.contains(column)) {
+                    columnList.add(column);
+                }
+                columnIndexes[i] = columnList.indexOf(column);
+            }
+        }
+        String[] memberPrefixes = memberPrefixSet.toArray(String[]::new);
+        if (first.dictCode != null) {
+            String dictCode = first.dictCode;
+            String batchSql = isEmpty(dictFusedBatchQuerySql) || first.associateFieldGetter.length != 1
+                    ? null : String.format(dictFusedBatchQuerySql, dictCode, "%s");
+            return new Translator(fieldNames, fieldSetters, columnIndexes, new boolean[]{false, true},
+                    first.associateFieldGetter, String.format(dictFusedQuerySql, dictCode), batchSql,
+                    fusedDictCacheKeyPrefix(dictCode), dictCode, memberPrefixes, null);
+        }
+        String columns = String.join(", ", columnList);
+        String batchSql = first.batchSql == null ? null : MessageFormat.format(transField.batchSql(), columns);
+        return new Translator(fieldNames, fieldSetters, columnIndexes, new boolean[columnList.size()],
+                first.associateFieldGetter, MessageFormat.format(transField.sql(), columns), batchSql,
+                first.cacheKeyPrefix + "[" + String.join(",", columnList) + "]:", null, memberPrefixes, null);
+    }
+
+    private static String fusedDictCacheKeyPrefix(String dictCode) {
+        return "dict:fused:" + dictCode + ":";
+    }
+
+    /**
+     * 构造字段转译器，dictCode为空时sql和batchSql需已用sqlTemplateParam格式化
+     *
+     * @return 未指定查询方式时返回null
+     */
+    private Translator newTranslator(Class<?> type,
+                                     String fieldName,
+                                     BiConsumer<Object, Object> destFieldSetter,
+                                     Function<Object, Object>[] srcFieldGetters,
+                                     String dictCode,
+                                     String sql,
+                                     String batchSql,
+                                     String cacheKeyPrefix) {
+        Field field = ReflectionUtils.findField(type, fieldName);
+        TranslatorField transField = field == null ? null : field.getAnnotation(TranslatorField.class);
+        Translator translator = transField != null && (transField.enumType() != void.class || !isEmpty(transField.source()))
+                ? newSourceTranslator(type, fieldName, destFieldSetter, srcFieldGetters, transField)
+                : newQueryTranslator(type, fieldName, destFieldSetter, srcFieldGetters, dictCode, sql, batchSql, cacheKeyPrefix);
+        if (translator != null && transField != null) {
+            translator.groups = groups(transField.groups());
+        }
+        return translator;
+    }
+
+    /**
+     * 查库的字段转译器
+     *
+     * @return 未指定查询方式时返回null
+     */
+    private Translator newQueryTranslator(Class<?> type,
+                                          String fieldName,
+                                          BiConsumer<Object, Object> destFieldSetter,
+                                          Function<Object, Object>[] srcFieldGetters,
+                                          String dictCode,
+                                          String sql,
+                                          String batchSql,
+                                          String cacheKeyPrefix) {
+        boolean eng = false;
+        if (isEmpty(dictCode) && isEmpty(sql)) {
+            log.error("属性转义注册失败，类型：{}，转义字段：{}未指定查询方式", type.getSimpleName(), fieldName);
+            return null;
+        }
+        if (!isEmpty(dictCode)) {
+            // 约定：如果字段名以enName或engName结尾（不区分大小写)则自动使用字典的英文名注入字段
+            if (StringUtils.endsWithIgnoreCase(fieldName, "enName") ||
+                    StringUtils.endsWithIgnoreCase(fieldName, "engName")) {
+                eng = true;
+                sql = String.format(dictQuerySqlEng, dictCode);
+                batchSql = isEmpty(dictBatchQuerySqlEng) ? null : String.format(dictBatchQuerySqlEng, dictCode, "%s");
+                if (isEmpty(cacheKeyPrefix)) {
+                    cacheKeyPrefix = "dict:" + dictCode + ":";
+                }
+            } else {
+                sql = String.format(dictQuerySql, dictCode);
+                batchSql = isEmpty(dictBatchQuerySql) ? null : String.format(dictBatchQuerySql, dictCode, "%s");
+                if (isEmpty(cacheKeyPrefix)) {
+                    cacheKeyPrefix = "dict:eng:" + dictCode + ":";
+                }
+            }
+        }
+        // 批量查询只支持单个关联字段
+        if (isEmpty(batchSql) || srcFieldGetters.length != 1) {
+            batchSql = null;
+        }
+        return new Translator(fieldName,
+                destFieldSetter,
+                srcFieldGetters,
+                sql,
+                batchSql,
+                cacheKeyPrefix,
+                isEmpty(dictCode) ? null : dictCode,
+                eng);
+    }
+
+    /**
+     * 进程内转译来源的转译器，注册时取一次码表
+     */
+    private Translator newSourceTranslator(Class<?> type,
+                                           String fieldName,
+                                           BiConsumer<Object, Object> destFieldSetter,
+                                           Function<Object, Object>[] srcFieldGetters,
+                                           TranslatorField transField) {
+        String sourceName = isEmpty(transField.source()) ? EnumTranslationSource.NAME : transField.source();
+        TranslationSource source = SOURCE_MAP.get(sourceName);
+        if (source == null) {
+            log.error("属性转义注册失败，类型：{}，转义字段：{}的转译来源：{}未注册", type.getSimpleName(), fieldName, sourceName);
+            return null;
+        }
+        if (srcFieldGetters.length != 1) {
+            log.error("属性转义注册失败，类型：{}，转义字段：{}使用转译来源时只能有一个关联字段", type.getSimpleName(), fieldName);
+            return null;
+        }
+        Map<String, String> lookupTable = source.lookupTable(transField);
+        if (lookupTable == null) {
+            log.error("属性转义注册失败，类型：{}，转义字段：{}的转译来源：{}没有码表", type.getSimpleName(), fieldName, sourceName);
+            return null;
+        }
+        return new Translator(fieldName, destFieldSetter, srcFieldGetters, "source:" + sourceName + ":",
+                new HashMap<>(lookupTable));
+    }
+
+    /**
+     * 查找注解处理器为该类生成的转译信息
+     *
+     * @param type
+     * @return 没有生成时返回null
+     */
+    private TranslatorDescriptor findDescriptor(Class<?> type) {
+        try {
+            Class<?> descriptorType = Class.forName(type.getName() + TranslatorDescriptor.SUFFIX, true, type.getClassLoader());
+            if (TranslatorDescriptor.class.isAssignableFrom(descriptorType)) {
+                TranslatorDescriptor descriptor = (TranslatorDescriptor) descriptorType.getDeclaredConstructor().newInstance();
+                if (type.equals(descriptor.type())) {
+                    return descriptor;
+                }
+            }
+        } catch (ClassNotFoundException e) {
+            return null;
+        } catch (Exception | LinkageError e) {
+            log.warn("类型:{}加载编译期转译信息失败，使用反射注册", type.getName(), e);
+        }
+        return null;
+    }
+
+    /**
+     * 使用编译期生成的转译信息注册
+     *
+     * @param type
+     * @param descriptor
+     * @param translatorList
+     * @param transNestedList
+     */
+    private void registerDescriptor(Class<?> type,
+                                    TranslatorDescriptor descriptor,
+                                    Collection<Translator> translatorList,
+                                    List<NestedAccessor> transNestedList) {
+        for (FieldDescriptor fieldDescriptor : descriptor.translatorFields()) {
+            @SuppressWarnings("unchecked")
+            Function<Object, Object>[] srcFieldGetters =
+                    fieldDescriptor.getAssociateFieldGetters().toArray(Function[]::new);
+            Translator translator = newTranslator(type, fieldDescriptor.getFieldName(), fieldDescriptor.getFieldSetter(),
+                    srcFieldGetters, fieldDescriptor.getDictCode(), fieldDescriptor.getSql(),
+                    fieldDescriptor.getBatchSql(), fieldDescriptor.getCacheKeyPrefix());
+            if (translator != null) {
+                translatorList.add(translator);
+            }
+        }
+        List<Function<Object, Object>> nestedGetters = descriptor.nestedGetters();
+        List<String> nestedFieldNames = descriptor.nestedFieldNames();
+        for (int i = 0; i < nestedGetters.size(); i++) {
+            Class<?> closedType = null;
+            if (nestedFieldNames.size() == nestedGetters.size()) {
+                try {
+                    closedType = closedType(type.getDeclaredField(nestedFieldNames.get(i)).getGenericType());
+                } catch (NoSuchFieldException e) {
+                    log.debug("类型:{}的嵌套字段:{}不存在", type.getName(), nestedFieldNames.get(i));
+                }
+            }
+            transNestedList.add(new NestedAccessor(nestedGetters.get(i), closedType));
+        }
+    }
+
+    /**
+     * 分组名去重，忽略空白
+     */
+    private static Set<String> groups(String[] groups) {
+        if (groups == null || groups.length == 0) {
+            return Set.of();
+        }
+        return Arrays.stream(groups).filter(StringUtils::hasText).collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * 容器类型：Collection、Map、Optional和对象数组
+     */
+    private static boolean isContainer(Class<?> type) {
+        return Collection.class.isAssignableFrom(type)
+                || Map.class.isAssignableFrom(type)
+                || Optional.class.equals(type)
+                || (type.isArray() && !type.getComponentType().isPrimitive());
+    }
+
+    /**
+     * 嵌套字段的值(容器则为元素)在运行时的类型能否由声明的类型确定，容器按泛型参数逐层展开
+     *
+     * @param type 字段声明的类型
+     * @return 确定的类型，不确定时返回null
+     */
+    private static Class<?> closedType(Type type) {
+        if (type instanceof Class<?> clazz) {
+            if (clazz.isArray()) {
+                return closedType(clazz.getComponentType());
+            }
+            // 没有泛型参数的容器不知道元素类型
+            return isContainer(clazz) ? null : closedClass(clazz);
+        }
+        if (type instanceof ParameterizedType parameterizedType) {
+            Class<?> rawType = (Class<?>) parameterizedType.getRawType();
+            Type[] typeArguments = parameterizedType.getActualTypeArguments();
+            if (Map.class.isAssignableFrom(rawType)) {
+                return typeArguments.length == 2 ? closedType(typeArguments[1]) : null;
+            }
+            if (Collection.class.isAssignableFrom(rawType) || Optional.class.equals(rawType)) {
+                return typeArguments.length == 1 ? closedType(typeArguments[0]) : null;
+            }
+            return closedClass(rawType);
+        }
+        if (type instanceof GenericArrayType genericArrayType) {
+            return closedType(genericArrayType.getGenericComponentType());
+        }
+        // 类型变量、通配符
+        return null;
+    }
+
+    /**
+     * 不能有子类的类型(final类、枚举、record、基本类型)和JDK的具体类
+     */
+    private static Class<?> closedClass(Class<?> clazz) {
+        if (clazz.isPrimitive() || clazz.isEnum() || Modifier.isFinal(clazz.getModifiers())) {
+            return clazz;
+        }
+        if (isJdkType(clazz) && !clazz.isInterface() && !Modifier.isAbstract(clazz.getModifiers())
+                && !Object.class.equals(clazz)) {
+            return clazz;
+        }
+        return null;
+    }
+
+    private static boolean isJdkType(Class<?> clazz) {
+        return clazz.isPrimitive() || clazz.getName().startsWith("java.") || clazz.getName().startsWith("javax.");
+    }
+
+    /**
+     * 嵌套字段优先使用读方法，没有读方法时直接读字段
+     *
+     * @param field
+     * @param propertyDescriptorMap
+     * @return
+     */
+    private Function<Object, Object> nestedGetter(Field field, Map<String, PropertyDescriptor> propertyDescriptorMap) {
+        PropertyDescriptor fieldPd = propertyDescriptorMap.get(field.getName());
+        if (fieldPd != null && fieldPd.getReadMethod() != null) {
+            return PropertyAccessors.getter(fieldPd.getReadMethod());
+        }
+        return PropertyAccessors.getter(field);
+    }
+
+    /**
+     * 多列的值拼接成一个缓存值，null列使用NULL_COLUMN
+     */
+    private static String joinColumns(String[] values) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                builder.append(COLUMN_SEPARATOR);
+            }
+            builder.append(values[i] == null ? NULL_COLUMN : values[i]);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 拆分多列的缓存值，列数不一致时(如缓存中是旧格式的值)各列都为null
+     */
+    private static String[] splitColumns(String value, int columnCount) {
+        String[] values = new String[columnCount];
+        String[] parts = value.split(String.valueOf(COLUMN_SEPARATOR), -1);
+        if (parts.length != columnCount) {
+            log.debug("缓存值的列数不正确:{}", value);
+            return values;
+        }
+        for (int i = 0; i < columnCount; i++) {
+            values[i] = NULL_COLUMN.equals(parts[i]) ? null : parts[i];
+        }
+        return values;
+    }
+
     /**
      * 缓存一个类的转译信息
      */
     class RegisterInfo {
         List<Translator> translatorList;
-        List<Field> transNestList;
+        List<NestedAccessor> transNestList;
 
-        public RegisterInfo(List<Translator> translatorList, List<Field> transNestList) {
+        /**
+         * 转译所有字段时的转译信息，计算可达性后赋值
+         */
+        volatile GroupView allGroupView;
+
+        /**
+         * 所选分组 -> 按分组筛选后的转译信息，计算可达性后放入
+         */
+        final ConcurrentHashMap<Set<String>, GroupView> groupViewMap = new ConcurrentHashMap<>(4);
+
+        public RegisterInfo(List<Translator> translatorList, List<NestedAccessor> transNestList) {
             this.translatorList = translatorList;
             this.transNestList = transNestList;
         }
+
+        /**
+         * @param groups 为空时为所有字段
+         * @return 还未计算时返回null
+         */
+        GroupView groupView(Set<String> groups) {
+            return groups.isEmpty() ? allGroupView : groupViewMap.get(groups);
+        }
+
+        void putGroupView(Set<String> groups, GroupView groupView) {
+            if (groups.isEmpty()) {
+                allGroupView = groupView;
+            } else {
+                groupViewMap.put(groups, groupView);
+            }
+        }
+
+        /**
+         * 属于所选分组的转译器，没有声明分组的字段只在转译所有字段时转译
+         */
+        List<Translator> translators(Set<String> groups) {
+            if (groups.isEmpty()) {
+                return translatorList;
+            }
+            List<Translator> selectedList = new ArrayList<>();
+            for (Translator translator : translatorList) {
+                if (!Collections.disjoint(translator.groups, groups)) {
+                    selectedList.add(translator);
+                }
+            }
+            return selectedList;
+        }
+    }
+
+    /**
+     * 类型按所选分组筛选后的转译信息
+     */
+    static class GroupView {
+        final List<Translator> translatorList;
+
+        /**
+         * 需要遍历的嵌套字段，去掉了确定到达不了所选转译字段的
+         */
+        final List<NestedAccessor> activeNestList;
+
+        /**
+         * 从该类型出发能否到达所选的转译字段
+         */
+        final boolean translatable;
+
+        GroupView(List<Translator> translatorList, List<NestedAccessor> activeNestList) {
+            this.translatorList = translatorList;
+            this.activeNestList = activeNestList;
+            this.translatable = !translatorList.isEmpty() || !activeNestList.isEmpty();
+        }
+    }
+
+    /**
+     * 嵌套字段、容器字段
+     */
+    static class NestedAccessor {
+        final Function<Object, Object> getter;
+
+        /**
+         * 字段值(容器则为元素)确定的类型，不确定时为null
+         */
+        final Class<?> closedType;
+
+        NestedAccessor(Function<Object, Object> getter, Class<?> closedType) {
+            this.getter = getter;
+            this.closedType = closedType;
+        }
     }
 
     class Translator {
-        final private Method fieldWriteMethod;
-        final private Method[] associateFieldReadMethod;
+        /**
+         * 目标字段，合并后的转译器有多个
+         */
+        final private String[] fieldNames;
+        final private BiConsumer<Object, Object>[] fieldSetters;
+
+        /**
+         * 各目标字段取查询结果的第几列
+         */
+        final private int[] columnIndexes;
+
+        /**
+         * 查询结果的列数，多于一列时缓存值为各列拼接
+         */
+        final private int columnCount;
+
+        /**
+         * 字典转译器的各列是否为英文显示值
+         */
+        final private boolean[] columnEngs;
+        final private Function<Object, Object>[] associateFieldGetter;
         final private String sql;
+        final private String batchSql;
         final private String cacheKeyPrefix;
+        final private String dictCode;
+
+        /**
+         * 合并前各转译器的缓存key前缀，未合并时为null
+         */
+        final private String[] memberCacheKeyPrefixes;
+
+        /**
+         * 查库的熔断器，未开启熔断时为null
+         */
+        final private CircuitBreaker dbBreaker;
+
+        /**
+         * 进程内转译来源的码表，关联字段的值 -> 转译值，查库的转译器为null
+         */
+        final private Map<String, String> lookupTable;
+
+        /**
+         * 字段声明的分组，合并后的转译器为各字段分组的并集。注册时赋值
+         */
+        private Set<String> groups = Set.of();
 
-        public Translator(Method fieldWriteMethod, Method[] associateFieldReadMethod, String sql, String cacheKey) {
-            this.fieldWriteMethod = fieldWriteMethod;
-            this.associateFieldReadMethod = associateFieldReadMethod;
+        /**
+         * @param fieldSetter 没有setter时为null，只能在序列化时转译
+         */
+        @SuppressWarnings("unchecked")
+        public Translator(String fieldName, BiConsumer<Object, Object> fieldSetter, Function<Object, Object>[] associateFieldGetter,
+                          String sql, String batchSql, String cacheKey, String dictCode, boolean eng) {
+            this(new String[]{fieldName}, new BiConsumer[]{fieldSetter}, new int[]{0}, new boolean[]{eng},
+                    associateFieldGetter, sql, batchSql, cacheKey, dictCode, null, null);
+        }
+
+        /**
+         * 进程内转译来源的转译器，只支持单个关联字段
+         *
+         * @param lookupTable 关联字段的值 -> 转译值
+         */
+        @SuppressWarnings("unchecked")
+        Translator(String fieldName, BiConsumer<Object, Object> fieldSetter, Function<Object, Object>[] associateFieldGetter,
+                   String cacheKey, Map<String, String> lookupTable) {
+            this(new String[]{fieldName}, new BiConsumer[]{fieldSetter}, new int[]{0}, new boolean[]{false},
+                    associateFieldGetter, null, null, cacheKey, null, null, lookupTable);
+        }
+
+        Translator(String[] fieldNames, BiConsumer<Object, Object>[] fieldSetters, int[] columnIndexes, boolean[] columnEngs,
+                   Function<Object, Object>[] associateFieldGetter, String sql, String batchSql, String cacheKey,
+                   String dictCode, String[] memberCacheKeyPrefixes, Map<String, String> lookupTable) {
+            this.fieldNames = fieldNames;
+            this.fieldSetters = fieldSetters;
+            this.columnIndexes = columnIndexes;
+            this.columnCount = columnEngs.length;
+            this.columnEngs = columnEngs;
+            this.associateFieldGetter = associateFieldGetter;
             this.cacheKeyPrefix = cacheKey;
             this.sql = sql;
+            this.batchSql = batchSql;
+            this.dictCode = dictCode;
+            this.dbBreaker = lookupTable == null ? newCircuitBreaker("db:" + cacheKey) : null;
+            this.memberCacheKeyPrefixes = memberCacheKeyPrefixes;
+            this.lookupTable = lookupTable;
         }
 
-        public void transAndSetValue(Object obj) {
+        /**
+         * 读取关联字段的值，登记到本次批量转译中
+         *
+         * @param obj
+         * @param batch
+         */
+        public void collect(Object obj, TransBatch batch) {
             try {
-                Object[] associateFieldValue = new Object[associateFieldReadMethod.length];
+                // 进程内码表直接转译，不进入批量查询
+                if (lookupTable != null) {
+                    Object readFieldValue = associateFieldGetter[0].apply(obj);
+                    if (!isBlank(readFieldValue)) {
+                        String value = lookupTable.get(readFieldValue instanceof Enum<?> constant
+                                ? constant.name() : readFieldValue.toString());
+                        if (value != null) {
+                            setField(obj, 0, value, batch.translations);
+                        }
+                    }
+                    return;
+                }
+                // 单个关联字段直接用字段值分组，不创建数组和字符串
+                if (associateFieldGetter.length == 1) {
+                    Object readFieldValue = associateFieldGetter[0].apply(obj);
+                    if (!isBlank(readFieldValue)) {
+                        batch.add(this, readFieldValue, obj);
+                    }
+                    return;
+                }
+                Object[] associateFieldValue = new Object[associateFieldGetter.length];
                 // 如果有字段为空，就跳过翻译
-                for (int i = 0; i < associateFieldReadMethod.length; i++) {
-                    Object readFieldValue = associateFieldReadMethod[i].invoke(obj);
-                    if (readFieldValue == null ||
-                            (readFieldValue instanceof String && ((String) readFieldValue).trim().isEmpty())) {
+                for (int i = 0; i < associateFieldGetter.length; i++) {
+                    Object readFieldValue = associateFieldGetter[i].apply(obj);
+                    if (isBlank(readFieldValue)) {
                         return;
                     }
                     associateFieldValue[i] = readFieldValue;
                 }
+                batch.add(this, new CompositeKey(associateFieldValue), obj);
+            } catch (RuntimeException e) {
+                log.error(e.getMessage(), e);
+            }
+        }
 
-                String cacheKey =
-                        cacheKeyPrefix + Arrays.stream(associateFieldValue).map(Object::toString).collect(Collectors.joining(":"));
-                String descFieldValue = get(cacheKey, associateFieldValue);
-                if (descFieldValue != null) {
-                    fieldWriteMethod.invoke(obj, descFieldValue);
+        private boolean isBlank(Object value) {
+            return value == null || (value instanceof String && ((String) value).isBlank());
+        }
+
+        /**
+         * 拼接缓存key，只在需要读写缓存时调用
+         *
+         * @param key 单个关联字段的值或CompositeKey
+         * @return
+         */
+        String cacheKey(Object key) {
+            if (!(key instanceof CompositeKey)) {
+                return cacheKeyPrefix.concat(key.toString());
+            }
+            Object[] values = ((CompositeKey) key).values;
+            StringBuilder builder = new StringBuilder(cacheKeyPrefix.length() + values.length * 8).append(cacheKeyPrefix);
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    builder.append(':');
                 }
-            } catch (IllegalAccessException | InvocationTargetException e) {
-                log.error(e.getMessage(), e);
+                builder.append(values[i]);
+            }
+            return builder.toString();
+        }
+
+        /**
+         * 预加载的字典直接从内存转译
+         *
+         * @param pendingGroup 待转译的值
+         * @param translations 不为null时转译值记录到这里，不写入对象
+         * @return 是否已由预加载字典转译
+         */
+        boolean resolveFromDictionary(PendingGroup pendingGroup, Translations translations) {
+            if (dictCode == null || dictionaryStore == null || !dictionaryStore.contains(dictCode)) {
+                return false;
             }
+            int[] hits = {0, 0};
+            pendingGroup.forEach(pendingValue -> {
+                String value = dictionaryValue(pendingValue.key.toString());
+                if (value != null) {
+                    setValue(pendingValue, value, translations);
+                    hits[0]++;
+                } else {
+                    hits[1]++;
+                }
+            });
+            metrics.recordLookup(TranslatorMetrics.TIER_DICTIONARY, cacheKeyPrefix, hits[0], hits[1]);
+            return true;
         }
 
-        private String get(String cacheKey, Object[] param) {
-            String value = null;
-            boolean setLocalCache = false;
-            if (DATA_CACHE_TL.get() != null) {
-                // ThreadLocal缓存
-                value = DATA_CACHE_TL.get().get(cacheKey);
-                setLocalCache = true;
+        private String dictionaryValue(String dictDataCode) {
+            if (columnCount == 1) {
+                return dictionaryStore.get(dictCode, dictDataCode, columnEngs[0]);
+            }
+            String[] values = new String[columnCount];
+            boolean found = false;
+            for (int i = 0; i < columnCount; i++) {
+                values[i] = dictionaryStore.get(dictCode, dictDataCode, columnEngs[i]);
+                found |= values[i] != null;
             }
+            return found ? joinColumns(values) : null;
+        }
+
+        /**
+         * 从数据库获取缓存未命中的值并回填，有批量查询模板时批量查询
+         *
+         * @param missMap      cacheKey -> 待转译的值
+         * @param session
+         * @param translations 不为null时转译值记录到这里，不写入对象
+         * @param deadline
+         * @return cacheKey -> 转译值，查不到的值为CacheSupport.NULL_VALUE，超时或出错未查询的key不在其中
+         */
+        Map<String, String> loadFromDB(Map<String, PendingValue> missMap, JdbcSession session, Translations translations,
+                                       Deadline deadline) {
+            Map<String, String> result = query(params(missMap), session, deadline);
+            fill(missMap, result, translations);
+            return result;
+        }
+
+        Map<String, Object[]> params(Map<String, PendingValue> missMap) {
+            Map<String, Object[]> paramMap = new LinkedHashMap<>(missMap.size() * 2);
+            missMap.forEach((cacheKey, pendingValue) -> paramMap.put(cacheKey, pendingValue.param()));
+            return paramMap;
+        }
 
-            boolean setCache = true;
-            if (value == null) {
-                // 缓存
-                Optional<String> valueOptional = cacheSupport.get(cacheKey);
-                if (valueOptional.isEmpty()) {
-                    value = getFromDB(param);
+        void fill(Map<String, PendingValue> missMap, Map<String, String> valueMap, Translations translations) {
+            missMap.forEach((cacheKey, pendingValue) -> setValue(pendingValue, valueMap.get(cacheKey), translations));
+        }
+
+        /**
+         * 查库前判断熔断器，熔断时不查库
+         */
+        boolean allowQuery() {
+            return dbBreaker == null || dbBreaker.allowRequest();
+        }
+
+        /**
+         * 从数据库查询，有批量查询模板时批量查询。超过截止时间后不再执行新的语句，
+         * 出错时停止查询，超时或出错未查询的key不写入负缓存
+         *
+         * @param paramMap cacheKey -> 关联字段的值
+         * @param session
+         * @param deadline
+         * @return cacheKey -> 转译值，查不到的值为CacheSupport.NULL_VALUE
+         */
+        Map<String, String> query(Map<String, Object[]> paramMap, JdbcSession session, Deadline deadline) {
+            long start = System.nanoTime();
+            Map<String, String> result = new HashMap<>(paramMap.size() * 2);
+            try {
+                if (batchSql != null) {
+                    getFromDBBatch(paramMap, session, deadline, result);
                 } else {
-                    value = valueOptional.orElse(null);
-                    setCache = false;
+                    for (Map.Entry<String, Object[]> entry : paramMap.entrySet()) {
+                        if (deadline.isExpired()) {
+                            break;
+                        }
+                        result.put(entry.getKey(), getFromDB(entry.getValue(), session));
+                    }
+                }
+                if (dbBreaker != null) {
+                    dbBreaker.success();
+                }
+            } catch (SQLException e) {
+                if (dbBreaker != null) {
+                    dbBreaker.failure();
+                }
+                log.error(e.getMessage(), e);
+            }
+            int misses = 0;
+            for (Map.Entry<String, String> entry : result.entrySet()) {
+                if (entry.getValue() == null) {
+                    misses++;
+                    log.warn("cache_value_is_null, cacheKey = {}", entry.getKey());
+                    // 负缓存：记录为已知不存在，避免脏数据每次都查库
+                    entry.setValue(CacheSupport.NULL_VALUE);
+                }
+            }
+            metrics.recordDbQuery(cacheKeyPrefix, System.nanoTime() - start, result.size());
+            metrics.recordLookup(TranslatorMetrics.TIER_DB, cacheKeyPrefix, result.size() - misses, misses);
+            if (refreshAhead != null) {
+                refreshAhead.loaded(result.keySet());
+            }
+            return result;
+        }
+
+        /**
+         * 拆分成可并行的查询任务：有批量查询模板时按batchSize拆分，否则按并发查库数均分，
+         * 每个任务在一个连接上逐个查询
+         *
+         * @param missMap
+         * @return
+         */
+        List<Map<String, PendingValue>> split(Map<String, PendingValue> missMap) {
+            int partSize = batchSql != null ? batchSize : (missMap.size() + parallelism - 1) / parallelism;
+            if (missMap.size() <= partSize) {
+                return List.of(missMap);
+            }
+            List<Map<String, PendingValue>> partList = new ArrayList<>(missMap.size() / partSize + 1);
+            Map<String, PendingValue> part = new LinkedHashMap<>();
+            for (Map.Entry<String, PendingValue> entry : missMap.entrySet()) {
+                part.put(entry.getKey(), entry.getValue());
+                if (part.size() == partSize) {
+                    partList.add(part);
+                    part = new LinkedHashMap<>();
+                }
+            }
+            if (!part.isEmpty()) {
+                partList.add(part);
+            }
+            return partList;
+        }
+
+        private void setValue(PendingValue pendingValue, String value, Translations translations) {
+            if (value == null || CacheSupport.NULL_VALUE.equals(value)) {
+                return;
+            }
+            if (columnCount == 1) {
+                for (int i = 0; i < fieldNames.length; i++) {
+                    setField(pendingValue, i, value, translations);
+                }
+                return;
+            }
+            String[] values = splitColumns(value, columnCount);
+            for (int i = 0; i < fieldNames.length; i++) {
+                String columnValue = values[columnIndexes[i]];
+                if (columnValue != null) {
+                    setField(pendingValue, i, columnValue, translations);
+                }
+            }
+        }
+
+        private void setField(PendingValue pendingValue, int fieldIndex, String value, Translations translations) {
+            for (Object target : pendingValue.targetList) {
+                setField(target, fieldIndex, value, translations);
+            }
+        }
+
+        private void setField(Object target, int fieldIndex, String value, Translations translations) {
+            if (translations != null) {
+                translations.put(target, fieldNames[fieldIndex], value);
+                return;
+            }
+            BiConsumer<Object, Object> fieldSetter = fieldSetters[fieldIndex];
+            if (fieldSetter == null) {
+                return;
+            }
+            try {
+                fieldSetter.accept(target, value);
+            } catch (RuntimeException e) {
+                log.error(e.getMessage(), e);
+            }
+        }
+
+        /**
+         * @return 查不到时返回null
+         */
+        private String getFromDB(Object[] param, JdbcSession session) throws SQLException {
+            PreparedStatement preparedStatement = session.prepare(sql);
+            for (int i = 0; i < param.length; i++) {
+                preparedStatement.setObject(i + 1, param[i]);
+            }
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                if (resultSet.next()) {
+                    return columnCount == 1 ? ValueInterner.intern(resultSet.getString(1)) : readColumns(resultSet, 1);
+                }
+            }
+            return null;
+        }
+
+        /**
+         * 读取从offset开始的columnCount列并拼接
+         *
+         * @return 各列都为null时返回null
+         */
+        private String readColumns(ResultSet resultSet, int offset) throws SQLException {
+            String[] values = new String[columnCount];
+            boolean found = false;
+            for (int i = 0; i < columnCount; i++) {
+                values[i] = resultSet.getString(offset + i);
+                found |= values[i] != null;
+            }
+            return found ? ValueInterner.intern(joinColumns(values)) : null;
+        }
+
+        /**
+         * 按batchSize分段，用IN查询一次取回多个key的值，超过截止时间后不再查询剩余的分段。
+         * 查询结果按第一列匹配key：先按字符串形式精确匹配，再按规范形式匹配(CHAR补齐的空格、数值的小数位数)；
+         * 仍未匹配的key(如不区分大小写的排序规则)逐个查询后才记为查不到
+         *
+         * @param paramMap cacheKey -> 关联字段的值
+         * @param session
+         * @param deadline
+         * @param result   已查询分段的cacheKey -> 转译值，查不到时为null
+         */
+        private void getFromDBBatch(Map<String, Object[]> paramMap, JdbcSession session, Deadline deadline,
+                                    Map<String, String> result) throws SQLException {
+            List<Map.Entry<String, Object[]>> entryList = new ArrayList<>(paramMap.entrySet());
+            Map<String, String> normalizedKeyMap = new HashMap<>(Math.min(entryList.size(), batchSize) * 2);
+            Map<String, String> rowMap = new HashMap<>(Math.min(entryList.size(), batchSize) * 2);
+            for (int from = 0; from < entryList.size(); from += batchSize) {
+                if (deadline.isExpired()) {
+                    return;
+                }
+                List<Map.Entry<String, Object[]>> chunk = entryList.subList(from, Math.min(from + batchSize, entryList.size()));
+                String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+                // 满batchSize的分段sql相同，同一会话内复用语句
+                PreparedStatement preparedStatement = session.prepare(String.format(batchSql, placeholders));
+                normalizedKeyMap.clear();
+                for (int i = 0; i < chunk.size(); i++) {
+                    Object param = chunk.get(i).getValue()[0];
+                    preparedStatement.setObject(i + 1, param);
+                    normalizedKeyMap.putIfAbsent(normalizeKey(param), chunk.get(i).getKey());
+                }
+                rowMap.clear();
+                try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                    while (resultSet.next()) {
+                        String column = resultSet.getString(1);
+                        String cacheKey = cacheKeyPrefix + column;
+                        if (!paramMap.containsKey(cacheKey)) {
+                            cacheKey = normalizedKeyMap.get(normalizeKey(column));
+                            if (cacheKey == null) {
+                                continue;
+                            }
+                        }
+                        rowMap.putIfAbsent(cacheKey,
+                                columnCount == 1 ? ValueInterner.intern(resultSet.getString(2)) : readColumns(resultSet, 2));
+                    }
+                }
+                for (Map.Entry<String, Object[]> entry : chunk) {
+                    String value = rowMap.get(entry.getKey());
+                    if (value == null && !rowMap.containsKey(entry.getKey())) {
+                        if (deadline.isExpired()) {
+                            return;
+                        }
+                        value = getFromDB(entry.getValue(), session);
+                    }
+                    result.put(entry.getKey(), value);
+                }
+            }
+        }
+    }
+
+    /**
+     * 批量查询结果匹配key时使用的规范形式：去掉末尾空格，数值去掉小数部分末尾的0
+     *
+     * @param key 关联字段的值或查询结果第一列的值
+     * @return
+     */
+    static String normalizeKey(Object key) {
+        if (key == null) {
+            return null;
+        }
+        String value = StringUtils.trimTrailingWhitespace(key.toString());
+        if (key instanceof Number || NUMBER_PATTERN.matcher(value).matches()) {
+            try {
+                BigDecimal decimal = new BigDecimal(value).stripTrailingZeros();
+                return decimal.signum() == 0 ? "0" : decimal.toPlainString();
+            } catch (NumberFormatException e) {
+                return value;
+            }
+        }
+        return value;
+    }
+
+    /**
+     * 一次转译过程中收集到的待转译key，按转译器分组，同一个key只查询一次
+     */
+    class TransBatch {
+        final Map<Translator, PendingGroup> pendingMap = new LinkedHashMap<>();
+
+        /**
+         * 不为null时转译值记录到这里，不写入对象
+         */
+        final Translations translations;
+
+        /**
+         * 遍历的对象数
+         */
+        int visited;
+
+        /**
+         * 已遍历的容器和带嵌套字段的对象，按对象标识判断，防止循环引用时无限递归
+         */
+        private final Set<Object> enteredSet = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        /**
+         * 请求内的去重缓存，为null时不使用。随批次传递，不依赖线程，虚拟线程和异步回调中同样有效
+         */
+        final Map<String, String> dedupMap;
+
+        /**
+         * 超过后不再查缓存和数据库
+         */
+        final Deadline deadline;
+
+        /**
+         * 只转译这些分组的字段，为空时转译所有字段
+         */
+        final Set<String> groups;
+
+        TransBatch(Translations translations, Map<String, String> dedupMap, Deadline deadline, Set<String> groups) {
+            this.translations = translations;
+            this.dedupMap = dedupMap;
+            this.deadline = deadline;
+            this.groups = groups;
+        }
+
+        /**
+         * 标记对象已遍历
+         *
+         * @param obj
+         * @return 第一次遍历时返回true
+         */
+        boolean enter(Object obj) {
+            return enteredSet.add(obj);
+        }
+
+        void add(Translator translator, Object key, Object target) {
+            pendingMap.computeIfAbsent(translator, e -> new PendingGroup()).add(key, target);
+        }
+
+        /**
+         * 依次从请求内的去重缓存、缓存、数据库获取值：整个对象图的key一次性批量读缓存，
+         * 未命中的key按转译器查库，查库结果再一次性批量写缓存。
+         * 超过截止时间、熔断或出错时跳过缓存或数据库，剩余的key使用过期值或不转译
+         */
+        void resolve() {
+            metrics.recordVisited(visited);
+            Map<String, String> localCache = dedupMap;
+            Map<Translator, Map<String, PendingValue>> remainMap = new LinkedHashMap<>();
+            Set<String> cacheKeySet = new LinkedHashSet<>();
+            pendingMap.forEach((translator, pendingGroup) -> {
+                if (translator.resolveFromDictionary(pendingGroup, translations)) {
+                    return;
+                }
+                int[] hits = {0, 0};
+                pendingGroup.forEach(pendingValue -> {
+                    // 预加载字典之后才需要缓存key，每个不同的值拼接一次
+                    String cacheKey = translator.cacheKey(pendingValue.key);
+                    // 请求内的去重缓存
+                    String value = localCache == null ? null : localCache.get(cacheKey);
+                    if (value != null) {
+                        translator.setValue(pendingValue, value, translations);
+                        hits[0]++;
+                    } else {
+                        hits[1]++;
+                        // 类型不同但拼接结果相同的值(如"1"和1)共用同一个缓存key
+                        PendingValue existing = remainMap.computeIfAbsent(translator, e -> new LinkedHashMap<>())
+                                .putIfAbsent(cacheKey, pendingValue);
+                        if (existing != null) {
+                            existing.targetList.addAll(pendingValue.targetList);
+                        }
+                        cacheKeySet.add(cacheKey);
+                    }
+                });
+                if (localCache != null) {
+                    metrics.recordLookup(TranslatorMetrics.TIER_REQUEST, translator.cacheKeyPrefix, hits[0], hits[1]);
+                }
+            });
+            if (cacheKeySet.isEmpty()) {
+                return;
+            }
+            if (deadline.isExpired()) {
+                remainMap.forEach((translator, pendingValueMap) ->
+                        fallback(translator, pendingValueMap, TranslatorMetrics.TIER_CACHE, TranslatorMetrics.REASON_TIMEOUT));
+                return;
+            }
+
+            // 缓存，不可用时先使用过期值，不把压力都转到数据库
+            Map<String, String> cacheValueMap = getAllFromCache(cacheKeySet);
+            boolean cacheAvailable = cacheValueMap != null;
+            if (cacheAvailable) {
+                if (localCache != null) {
+                    localCache.putAll(cacheValueMap);
+                }
+                if (staleValues != null && !cacheSupport.isLocalCache()) {
+                    staleValues.record(cacheValueMap);
                 }
             } else {
-                setLocalCache = false;
+                cacheValueMap = Map.of();
             }
 
-            if (value == null) {
-                log.warn("cache_value_is_null, cacheKey = {}", cacheKey);
+            // 同一个key的并发未命中只由第一个请求查库，其余请求等待其结果
+            Map<Translator, Map<String, PendingValue>> leaderMap = new LinkedHashMap<>();
+            Map<String, CompletableFuture<String>> ownFlightMap = new HashMap<>();
+            Map<Translator, Map<String, PendingValue>> followerMap = new LinkedHashMap<>();
+            Map<String, CompletableFuture<String>> followerFlightMap = new HashMap<>();
+            Map<String, String> cachedValueMap = cacheValueMap;
+            remainMap.forEach((translator, pendingValueMap) -> {
+                Map<String, Object[]> refreshMap = new LinkedHashMap<>();
+                Map<String, PendingValue> skipMap = new LinkedHashMap<>();
+                // 缓存未命中数、等待其他请求查库的数量、使用过期值的数量
+                int[] counts = {0, 0, 0};
+                // 有需要查库的key时才判断一次是否可以查库，熔断器冷却结束后会放行这次查库作为试探，不可以时记录原因
+                String[] skipReason = {null};
+                boolean[] decided = {false};
+                pendingValueMap.forEach((cacheKey, pendingValue) -> {
+                    String value = cachedValueMap.get(cacheKey);
+                    if (value != null) {
+                        translator.setValue(pendingValue, value, translations);
+                        if (refreshAhead != null && refreshAhead.claim(cacheKey)) {
+                            refreshMap.put(cacheKey, pendingValue.param());
+                        }
+                        return;
+                    }
+                    counts[0]++;
+                    if (!cacheAvailable && staleValues != null) {
+                        String staleValue = staleValues.get(cacheKey);
+                        if (staleValue != null) {
+                            translator.setValue(pendingValue, staleValue, translations);
+                            counts[2]++;
+                            return;
+                        }
+                    }
+                    if (!decided[0]) {
+                        decided[0] = true;
+                        if (deadline.isExpired()) {
+                            skipReason[0] = TranslatorMetrics.REASON_TIMEOUT;
+                        } else if (!translator.allowQuery()) {
+                            skipReason[0] = TranslatorMetrics.REASON_CIRCUIT_OPEN;
+                        }
+                    }
+                    if (skipReason[0] != null) {
+                        skipMap.put(cacheKey, pendingValue);
+                        return;
+                    }
+                    CompletableFuture<String> flight = new CompletableFuture<>();
+                    CompletableFuture<String> existingFlight = IN_FLIGHT_MAP.putIfAbsent(cacheKey, flight);
+                    if (existingFlight == null) {
+                        leaderMap.computeIfAbsent(translator, e -> new LinkedHashMap<>()).put(cacheKey, pendingValue);
+                        ownFlightMap.put(cacheKey, flight);
+                    } else {
+                        counts[1]++;
+                        followerMap.computeIfAbsent(translator, e -> new LinkedHashMap<>()).put(cacheKey, pendingValue);
+                        followerFlightMap.put(cacheKey, existingFlight);
+                    }
+                });
+                metrics.recordLookup(TranslatorMetrics.TIER_CACHE, translator.cacheKeyPrefix,
+                        pendingValueMap.size() - counts[0], counts[0]);
+                if (counts[1] > 0) {
+                    metrics.recordLookup(TranslatorMetrics.TIER_IN_FLIGHT, translator.cacheKeyPrefix, counts[1], 0);
+                }
+                if (counts[2] > 0) {
+                    metrics.recordLookup(TranslatorMetrics.TIER_STALE, translator.cacheKeyPrefix, counts[2], 0);
+                }
+                if (!skipMap.isEmpty()) {
+                    fallback(translator, skipMap, TranslatorMetrics.TIER_DB, skipReason[0]);
+                }
+                if (!refreshMap.isEmpty()) {
+                    refreshAhead.submit(() -> {
+                        try (JdbcSession session = new JdbcSession(dataSource)) {
+                            putToCache(translator.query(refreshMap, session, Deadline.NONE));
+                        }
+                    });
+                }
+            });
+
+            Map<String, String> dbValueMap = new ConcurrentHashMap<>();
+            try {
+                if (parallelExecutor == null) {
+                    // 所有转译器共用一个连接
+                    try (JdbcSession session = new JdbcSession(dataSource, deadline)) {
+                        leaderMap.forEach((translator, missMap) -> {
+                            Map<String, String> loaded = deadline.isExpired()
+                                    ? Map.of() : translator.loadFromDB(missMap, session, translations, deadline);
+                            dbValueMap.putAll(loaded);
+                            fallbackUnloaded(translator, missMap, loaded);
+                        });
+                    }
+                } else {
+                    loadFromDBParallel(leaderMap, dbValueMap);
+                }
+                if (localCache != null) {
+                    localCache.putAll(dbValueMap);
+                }
+                if (!dbValueMap.isEmpty()) {
+                    putToCache(dbValueMap);
+                }
+            } finally {
+                // 写入缓存后再释放，之后的请求可以直接命中缓存；未查到的key释放为null，等待的请求使用过期值
+                ownFlightMap.forEach((cacheKey, flight) -> {
+                    flight.complete(dbValueMap.get(cacheKey));
+                    IN_FLIGHT_MAP.remove(cacheKey, flight);
+                });
             }
 
-            if (setLocalCache) {
+            followerMap.forEach((translator, pendingValueMap) -> {
+                Map<String, PendingValue> unloadedMap = new LinkedHashMap<>();
+                pendingValueMap.forEach((cacheKey, pendingValue) -> {
+                    String flightValue = await(followerFlightMap.get(cacheKey));
+                    if (flightValue == null) {
+                        unloadedMap.put(cacheKey, pendingValue);
+                        return;
+                    }
+                    translator.setValue(pendingValue, flightValue, translations);
+                    if (localCache != null) {
+                        localCache.put(cacheKey, flightValue);
+                    }
+                });
+                if (!unloadedMap.isEmpty()) {
+                    fallback(translator, unloadedMap, TranslatorMetrics.TIER_DB,
+                            deadline.isExpired() ? TranslatorMetrics.REASON_TIMEOUT : TranslatorMetrics.REASON_ERROR);
+                }
+            });
+        }
 
-                DATA_CACHE_TL.get().put(cacheKey, value);
+        /**
+         * 把各转译器的未命中key拆分成多个查询任务并行执行，并发查询数由执行器的线程数限制。
+         * 查询结果在调用线程写入目标对象；超过截止时间后不再等待，之后完成的任务只写缓存
+         *
+         * @param leaderMap  转译器 -> 需要查库的key
+         * @param dbValueMap 查询结果放这里
+         */
+        private void loadFromDBParallel(Map<Translator, Map<String, PendingValue>> leaderMap,
+                                        Map<String, String> dbValueMap) {
+            List<Translator> translatorList = new ArrayList<>();
+            List<Map<String, PendingValue>> partList = new ArrayList<>();
+            List<CompletableFuture<Map<String, String>>> futureList = new ArrayList<>();
+            leaderMap.forEach((translator, missMap) -> {
+                for (Map<String, PendingValue> part : translator.split(missMap)) {
+                    Map<String, Object[]> paramMap = translator.params(part);
+                    translatorList.add(translator);
+                    partList.add(part);
+                    futureList.add(CompletableFuture.supplyAsync(() -> {
+                        try (JdbcSession session = new JdbcSession(dataSource, deadline)) {
+                            return translator.query(paramMap, session, deadline);
+                        }
+                    }, parallelExecutor));
+                }
+            });
+            if (futureList.size() == 1) {
+                await(futureList.get(0));
+            } else {
+                await(CompletableFuture.allOf(futureList.toArray(CompletableFuture[]::new)));
             }
-            if (setCache) {
-                cacheSupport.put(cacheKey, value);
+            for (int i = 0; i < futureList.size(); i++) {
+                CompletableFuture<Map<String, String>> future = futureList.get(i);
+                Map<String, String> loaded = Map.of();
+                if (!future.isDone()) {
+                    future.thenAccept(TranslatorHelper.this::putToCache);
+                } else if (!future.isCompletedExceptionally()) {
+                    loaded = future.join();
+                }
+                dbValueMap.putAll(loaded);
+                translatorList.get(i).fill(partList.get(i), loaded, translations);
+                fallbackUnloaded(translatorList.get(i), partList.get(i), loaded);
+            }
+        }
+
+        /**
+         * 等待到截止时间
+         *
+         * @param future
+         * @return 超时、中断或出错时返回null
+         */
+        private <T> T await(CompletableFuture<T> future) {
+            try {
+                return deadline.isBounded()
+                        ? future.get(Math.max(0, deadline.remainingNanos()), TimeUnit.NANOSECONDS)
+                        : future.get();
+            } catch (TimeoutException e) {
+                return null;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            } catch (ExecutionException e) {
+                log.error(e.getMessage(), e.getCause());
+                return null;
             }
-            return value;
         }
 
-        private String getFromDB(Object[] param) {
-            try (Connection connection = dataSource.getConnection()) {
-                PreparedStatement preparedStatement = connection.prepareStatement(sql);
-                for (int i = 0; i < param.length; i++) {
-                    preparedStatement.setObject(i + 1, param[i]);
+        /**
+         * 超时或出错未查库的key使用过期值
+         */
+        private void fallbackUnloaded(Translator translator, Map<String, PendingValue> missMap, Map<String, String> loaded) {
+            if (loaded.size() == missMap.size()) {
+                return;
+            }
+            Map<String, PendingValue> unloadedMap = new LinkedHashMap<>();
+            missMap.forEach((cacheKey, pendingValue) -> {
+                if (!loaded.containsKey(cacheKey)) {
+                    unloadedMap.put(cacheKey, pendingValue);
                 }
-                ResultSet resultSet = preparedStatement.executeQuery();
-                if (resultSet.next()) {
-                    return resultSet.getString(1);
+            });
+            fallback(translator, unloadedMap, TranslatorMetrics.TIER_DB,
+                    deadline.isExpired() ? TranslatorMetrics.REASON_TIMEOUT : TranslatorMetrics.REASON_ERROR);
+        }
+
+        /**
+         * 跳过缓存或数据库的key使用过期值，没有过期值时不转译
+         *
+         * @param translator
+         * @param pendingValueMap cacheKey -> 待转译的值
+         * @param tier            跳过的层
+         * @param reason
+         */
+        private void fallback(Translator translator, Map<String, PendingValue> pendingValueMap, String tier, String reason) {
+            metrics.recordDegraded(tier, reason, pendingValueMap.size());
+            if (staleValues == null) {
+                return;
+            }
+            int hits = 0;
+            for (Map.Entry<String, PendingValue> entry : pendingValueMap.entrySet()) {
+                String value = staleValues.get(entry.getKey());
+                if (value != null) {
+                    translator.setValue(entry.getValue(), value, translations);
+                    hits++;
                 }
-            } catch (SQLException e) {
-                log.error(e.getMessage(), e);
             }
+            metrics.recordLookup(TranslatorMetrics.TIER_STALE, translator.cacheKeyPrefix, hits, pendingValueMap.size() - hits);
+        }
+    }
+
+    /**
+     * 批量读缓存，熔断或出错时返回null
+     */
+    private Map<String, String> getAllFromCache(Set<String> cacheKeySet) {
+        if (cacheBreaker != null && !cacheBreaker.allowRequest()) {
+            metrics.recordDegraded(TranslatorMetrics.TIER_CACHE, TranslatorMetrics.REASON_CIRCUIT_OPEN, cacheKeySet.size());
             return null;
         }
+        try {
+            Map<String, String> cacheValueMap = cacheSupport.getAll(cacheKeySet);
+            if (cacheBreaker != null) {
+                cacheBreaker.success();
+            }
+            return cacheValueMap;
+        } catch (RuntimeException e) {
+            if (cacheBreaker != null) {
+                cacheBreaker.failure();
+            }
+            metrics.recordDegraded(TranslatorMetrics.TIER_CACHE, TranslatorMetrics.REASON_ERROR, cacheKeySet.size());
+            log.error("读取转译缓存失败", e);
+            return null;
+        }
+    }
+
+    /**
+     * 批量写缓存并记录过期值，熔断时不写缓存，出错时只记录日志
+     */
+    private void putToCache(Map<String, String> cacheValues) {
+        if (staleValues != null) {
+            staleValues.record(cacheValues);
+        }
+        if (cacheBreaker != null && cacheBreaker.isOpen()) {
+            return;
+        }
+        try {
+            cacheSupport.putAll(cacheValues);
+        } catch (RuntimeException e) {
+            if (cacheBreaker != null) {
+                cacheBreaker.failure();
+            }
+            log.error("写入转译缓存失败", e);
+        }
+    }
+
+    /**
+     * 一个转译器收集到的待转译key：整数类型的单字段key按long分组，其余按值本身或CompositeKey分组
+     */
+    static class PendingGroup {
+        private LongObjectMap<PendingValue> longKeyMap;
+        private Map<Object, PendingValue> objectKeyMap;
+
+        void add(Object key, Object target) {
+            PendingValue pendingValue;
+            if (key instanceof Long || key instanceof Integer || key instanceof Short || key instanceof Byte) {
+                long longKey = ((Number) key).longValue();
+                if (longKeyMap == null) {
+                    longKeyMap = new LongObjectMap<>();
+                }
+                pendingValue = longKeyMap.get(longKey);
+                if (pendingValue == null) {
+                    pendingValue = new PendingValue(key);
+                    longKeyMap.put(longKey, pendingValue);
+                }
+            } else {
+                if (objectKeyMap == null) {
+                    objectKeyMap = new LinkedHashMap<>();
+                }
+                pendingValue = objectKeyMap.get(key);
+                if (pendingValue == null) {
+                    pendingValue = new PendingValue(key);
+                    objectKeyMap.put(key, pendingValue);
+                }
+            }
+            pendingValue.targetList.add(target);
+        }
+
+        void forEach(Consumer<PendingValue> consumer) {
+            if (longKeyMap != null) {
+                longKeyMap.forEachValue(consumer);
+            }
+            if (objectKeyMap != null) {
+                objectKeyMap.values().forEach(consumer);
+            }
+        }
+    }
+
+    /**
+     * 多个关联字段组成的key，哈希值在创建时计算一次
+     */
+    static final class CompositeKey {
+        final Object[] values;
+        private final int hash;
+
+        CompositeKey(Object[] values) {
+            this.values = values;
+            this.hash = Arrays.hashCode(values);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            return o instanceof CompositeKey && hash == ((CompositeKey) o).hash
+                    && Arrays.equals(values, ((CompositeKey) o).values);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * 一个待转译的key，以及需要回填这个key转译值的对象
+     */
+    static class PendingValue {
+        /**
+         * 单个关联字段的值或CompositeKey
+         */
+        final Object key;
+        final List<Object> targetList = new ArrayList<>(1);
+
+        PendingValue(Object key) {
+            this.key = key;
+        }
+
+        /**
+         * 查库参数
+         */
+        Object[] param() {
+            return key instanceof CompositeKey ? ((CompositeKey) key).values : new Object[]{key};
+        }
+    }
+
+    public void setDictBatchQuerySql(String dictBatchQuerySql) {
+        this.dictBatchQuerySql = dictBatchQuerySql;
+    }
+
+    public void setDictBatchQuerySqlEng(String dictBatchQuerySqlEng) {
+        this.dictBatchQuerySqlEng = dictBatchQuerySqlEng;
+    }
+
+    public void setDictFusedQuerySql(String dictFusedQuerySql) {
+        this.dictFusedQuerySql = dictFusedQuerySql;
+    }
+
+    public void setDictFusedBatchQuerySql(String dictFusedBatchQuerySql) {
+        this.dictFusedBatchQuerySql = dictFusedBatchQuerySql;
+    }
+
+    public void setDictionaryStore(DictionaryStore dictionaryStore) {
+        this.dictionaryStore = dictionaryStore;
+    }
+
+    public void setRefreshAhead(RefreshAhead refreshAhead) {
+        this.refreshAhead = refreshAhead;
+    }
+
+    public void setParallelExecutor(Executor parallelExecutor, int parallelism) {
+        this.parallelExecutor = parallelExecutor;
+        this.parallelism = Math.max(parallelism, 1);
+    }
+
+    public void setMetrics(TranslatorMetrics metrics) {
+        this.metrics = metrics == null ? TranslatorMetrics.NOOP : metrics;
+    }
+
+    /**
+     * 注册进程内转译来源，需在转译引用它的类之前注册，同名的来源会被替换
+     *
+     * @param source
+     */
+    public void registerSource(TranslationSource source) {
+        Assert.hasText(source.getName(), "转译来源的名称不能为空");
+        SOURCE_MAP.put(source.getName(), source);
+    }
+
+    public void setTimeout(long timeout) {
+        this.timeout = timeout;
+    }
+
+    public long getTimeout() {
+        return timeout;
+    }
+
+    public void setStaleValues(StaleValues staleValues) {
+        this.staleValues = staleValues;
+    }
+
+    /**
+     * 开启熔断，需在转译前设置
+     *
+     * @param failureThreshold 连续失败多少次后熔断
+     * @param coolDown         熔断后多久再试探
+     * @param unit
+     */
+    public void setCircuitBreaker(int failureThreshold, long coolDown, TimeUnit unit) {
+        this.circuitBreakerFailureThreshold = failureThreshold;
+        this.circuitBreakerCoolDownNanos = unit.toNanos(coolDown);
+        this.cacheBreaker = newCircuitBreaker("cache");
+    }
+
+    /**
+     * @param name
+     * @return 未开启熔断时返回null
+     */
+    private CircuitBreaker newCircuitBreaker(String name) {
+        return circuitBreakerFailureThreshold > 0
+                ? new CircuitBreaker(name, circuitBreakerFailureThreshold, circuitBreakerCoolDownNanos, TimeUnit.NANOSECONDS)
+                : null;
+    }
+
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    public void setWindowSize(int windowSize) {
+        Assert.isTrue(windowSize > 0, "windowSize必须大于0");
+        this.windowSize = windowSize;
+    }
+
+    public void setStreamDedupMaxSize(int streamDedupMaxSize) {
+        this.streamDedupMaxSize = streamDedupMaxSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        Assert.isTrue(batchSize > 0, "batchSize必须大于0");
+        this.batchSize = batchSize;
     }
 
     private static boolean isEmpty(String s) {
@@ -351,11 +2329,76 @@ public class TranslatorHelper {
 
 
     public interface CacheSupport {
+
+        /**
+         * 已知不存在的值，数据库查不到时写入缓存，实现类应使用较短的失效时间
+         */
+        String NULL_VALUE = "\u0000translator:null";
+
+        /**
+         * @param cacheKey
+         * @param cacheValue 转译值或NULL_VALUE
+         */
         void put(String cacheKey, String cacheValue);
         Optional<String> get(String cacheKey);
 
+        /**
+         * 批量获取，默认逐个get，远程缓存应覆盖为一次网络往返
+         *
+         * @param cacheKeys
+         * @return 只包含命中且值不为null的key
+         */
+        default Map<String, String> getAll(Collection<String> cacheKeys) {
+            Map<String, String> result = new HashMap<>(cacheKeys.size() * 2);
+            for (String cacheKey : cacheKeys) {
+                get(cacheKey).ifPresent(value -> result.put(cacheKey, value));
+            }
+            return result;
+        }
+
+        /**
+         * 批量写入，默认逐个put，远程缓存应覆盖为一次网络往返
+         *
+         * @param cacheValues 值可以为NULL_VALUE
+         */
+        default void putAll(Map<String, String> cacheValues) {
+            cacheValues.forEach(this::put);
+        }
+
+        /**
+         * 清除缓存的转译值，默认不支持
+         *
+         * @param cacheKeys
+         */
+        default void evict(Collection<String> cacheKeys) {
+            throw new UnsupportedOperationException(getClass().getName() + "不支持清除缓存");
+        }
+
+        /**
+         * 清除以cacheKeyPrefix开头的所有缓存，默认不支持
+         *
+         * @param cacheKeyPrefix
+         */
+        default void evictByPrefix(String cacheKeyPrefix) {
+            throw new UnsupportedOperationException(getClass().getName() + "不支持清除缓存");
+        }
+
         default boolean isLocalCache(){
             return true;
         }
+
+        /**
+         * 是否支持清除缓存，默认按是否覆盖了evict和evictByPrefix判断
+         *
+         * @return
+         */
+        default boolean isEvictable() {
+            try {
+                return getClass().getMethod("evict", Collection.class).getDeclaringClass() != CacheSupport.class
+                        && getClass().getMethod("evictByPrefix", String.class).getDeclaringClass() != CacheSupport.class;
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
     }
 }
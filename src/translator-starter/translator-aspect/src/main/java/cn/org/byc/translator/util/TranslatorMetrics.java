@@ -0,0 +1,123 @@
+package cn.org.byc.translator.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+/**
+ * 转译过程的指标采集，默认不采集。按转译器批量上报，不在每个key上调用
+ */
+public interface TranslatorMetrics {
+
+    TranslatorMetrics NOOP = new TranslatorMetrics() {
+    };
+
+    /**
+     * 预加载字典
+     */
+    String TIER_DICTIONARY = "dictionary";
+
+    /**
+     * 同一次转译内的去重缓存
+     */
+    String TIER_REQUEST = "request";
+
+    /**
+     * CacheSupport
+     */
+    String TIER_CACHE = "cache";
+
+    /**
+     * 等待其他请求的同一个key的查库结果
+     */
+    String TIER_IN_FLIGHT = "in-flight";
+
+    /**
+     * 数据库，未命中即数据库中不存在
+     */
+    String TIER_DB = "db";
+
+    /**
+     * 最近一次查到的过期值，超过截止时间、熔断或出错时使用
+     */
+    String TIER_STALE = "stale";
+
+    /**
+     * 超过转译截止时间
+     */
+    String REASON_TIMEOUT = "timeout";
+
+    /**
+     * 熔断器打开
+     */
+    String REASON_CIRCUIT_OPEN = "circuit-open";
+
+    /**
+     * 缓存或数据库出错
+     */
+    String REASON_ERROR = "error";
+
+    /**
+     * 某一层的命中和未命中数
+     *
+     * @param tier           TIER_*
+     * @param cacheKeyPrefix 转译器的缓存key前缀
+     * @param hits
+     * @param misses
+     */
+    default void recordLookup(String tier, String cacheKeyPrefix, int hits, int misses) {
+    }
+
+    /**
+     * 一次查库(批量查询为一个分段以上)的耗时
+     *
+     * @param cacheKeyPrefix
+     * @param nanos
+     * @param keyCount       查询的key数量
+     */
+    default void recordDbQuery(String cacheKeyPrefix, long nanos, int keyCount) {
+    }
+
+    /**
+     * 因超时、熔断或出错跳过某一层的key数量
+     *
+     * @param tier     TIER_CACHE或TIER_DB
+     * @param reason   REASON_*
+     * @param keyCount
+     */
+    default void recordDegraded(String tier, String reason, int keyCount) {
+    }
+
+    /**
+     * 一次批量转译遍历的对象数
+     *
+     * @param count
+     */
+    default void recordVisited(int count) {
+    }
+
+    /**
+     * 一次@TranslatorReturn方法返参转译的耗时
+     *
+     * @param method 类名.方法名
+     * @param nanos
+     */
+    default void recordTranslation(String method, long nanos) {
+    }
+
+    /**
+     * 登记需要采集统计信息的本地缓存，缓存需开启recordStats
+     *
+     * @param name
+     * @param cache
+     */
+    default void monitorCache(String name, Cache<?, ?> cache) {
+    }
+
+    /**
+     * 是否需要采集，为false时缓存不必开启recordStats
+     *
+     * @return
+     */
+    default boolean isEnabled() {
+        return false;
+    }
+}
@@ -0,0 +1,31 @@
+package cn.org.byc.translator.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.function.Function;
+
+/**
+ * 转译值去重：同一个显示值(如字典的几百个标签)被成千上万个缓存条目引用时共用一个String实例。
+ * 在值进入本地内存的地方(查库、读远程缓存、预加载字典)调用。
+ * 容量有上限，超出后不常用的值不再去重，不影响正确性
+ */
+final class ValueInterner {
+
+    private static final int MAXIMUM_SIZE = 20000;
+
+    private static final Cache<String, String> VALUE_CACHE = Caffeine.newBuilder()
+            .maximumSize(MAXIMUM_SIZE)
+            .build();
+
+    private ValueInterner() {
+    }
+
+    /**
+     * @param value
+     * @return 与value相等的共用实例，value为null时返回null
+     */
+    static String intern(String value) {
+        return value == null ? null : VALUE_CACHE.get(value, Function.identity());
+    }
+}
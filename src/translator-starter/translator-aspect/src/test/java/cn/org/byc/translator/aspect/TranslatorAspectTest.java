@@ -0,0 +1,56 @@
+package cn.org.byc.translator.aspect;
+
+import cn.org.byc.translator.annotation.TranslatorReturn;
+import cn.org.byc.translator.util.TranslatorHelper;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TranslatorAspectTest {
+
+    private final ExecutorService asyncExecutor = Executors.newSingleThreadExecutor(r -> new Thread(r, "translator-async-test"));
+
+    @AfterEach
+    void shutdown() {
+        asyncExecutor.shutdownNow();
+    }
+
+    @Test
+    void translateCompletionStageOnAsyncExecutor() throws Throwable {
+        TranslatorHelper translatorHelper = mock(TranslatorHelper.class);
+        AtomicReference<String> translateThread = new AtomicReference<>();
+        doAnswer(invocation -> {
+            translateThread.set(Thread.currentThread().getName());
+            return null;
+        }).when(translatorHelper).startTrans(any(), anyLong(), anySet());
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        when(joinPoint.proceed()).thenReturn(future);
+        TranslatorReturn translatorReturn = mock(TranslatorReturn.class);
+        when(translatorReturn.timeout()).thenReturn(-1L);
+        when(translatorReturn.groups()).thenReturn(new String[0]);
+
+        Object result = new TranslatorAspect(translatorHelper, null, asyncExecutor).doAround(joinPoint, translatorReturn);
+        // 在当前线程完成异步任务，转译仍在asyncExecutor中执行
+        List<String> value = List.of("value");
+        future.complete(value);
+
+        assertEquals(value, ((CompletableFuture<?>) result).get(10, TimeUnit.SECONDS));
+        assertEquals("translator-async-test", translateThread.get());
+    }
+}
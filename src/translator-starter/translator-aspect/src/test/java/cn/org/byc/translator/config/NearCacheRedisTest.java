@@ -0,0 +1,229 @@
+package cn.org.byc.translator.config;
+
+import cn.org.byc.translator.util.NearCacheSupport;
+import cn.org.byc.translator.util.TranslatorHelper;
+import cn.org.byc.translator.util.TranslatorMetrics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 使用真实的redis(embedded-redis)验证近端缓存：RedisCacheSupportConfig创建的两个实例通过redis pub/sub
+ * 和RedisMessageListenerContainer互相清除近端缓存
+ */
+class NearCacheRedisTest {
+
+    private static final String CHANNEL = new TranslatorAspectProperties.NearCache().getChannel();
+
+    private static RedisServer redisServer;
+
+    private static LettuceConnectionFactory connectionFactory;
+
+    private static RedisTemplate<Object, Object> redisTemplate;
+
+    private final List<RedisMessageListenerContainer> containerList = new ArrayList<>();
+
+    /**
+     * 频道上收到的所有失效消息
+     */
+    private final BlockingQueue<String> messageQueue = new LinkedBlockingQueue<>();
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        int port;
+        try (ServerSocket serverSocket = new ServerSocket(0)) {
+            port = serverSocket.getLocalPort();
+        }
+        redisServer = new RedisServer(port);
+        redisServer.start();
+        connectionFactory = new LettuceConnectionFactory("localhost", port);
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(connectionFactory);
+        redisTemplate.setDefaultSerializer(StringRedisSerializer.UTF_8);
+        redisTemplate.afterPropertiesSet();
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        if (connectionFactory != null) {
+            connectionFactory.destroy();
+        }
+        if (redisServer != null) {
+            redisServer.stop();
+        }
+    }
+
+    @BeforeEach
+    void init() {
+        redisTemplate.execute((RedisCallback<Object>) connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        });
+        RedisMessageListenerContainer container = startContainer();
+        container.addMessageListener((message, pattern) ->
+                messageQueue.add(new String(message.getBody(), StandardCharsets.UTF_8)), new ChannelTopic(CHANNEL));
+    }
+
+    @AfterEach
+    void destroyContainers() throws Exception {
+        for (RedisMessageListenerContainer container : containerList) {
+            container.destroy();
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void fillAfterMissDoesNotPublish(boolean redisHash) throws Exception {
+        TranslatorHelper.CacheSupport instanceA = newInstance(redisHash);
+        TranslatorHelper.CacheSupport instanceB = newInstance(redisHash);
+
+        assertTrue(instanceA.get("dict:card:01").isEmpty());
+        instanceA.putAll(Map.of("dict:card:01", "身份证", "dict:card:02", "护照"));
+        instanceA.put("school:1", "一中");
+        // 同样的值再写一次不算变化
+        ((NearCacheSupport) instanceB).evictNear(List.of("dict:card:01"));
+        instanceB.put("dict:card:01", "身份证");
+        assertEquals(Map.of("dict:card:01", "身份证", "school:1", "一中"),
+                instanceB.getAll(List.of("dict:card:01", "school:1", "school:2")));
+
+        // 频道中的消息有序，之后的清除消息是收到的第一条消息
+        instanceA.evict(List.of("marker:1"));
+        assertMessage("marker:1");
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void putOverwritingRemoteValueInvalidatesOtherInstance(boolean redisHash) throws Exception {
+        TranslatorHelper.CacheSupport instanceA = newInstance(redisHash);
+        TranslatorHelper.CacheSupport instanceB = newInstance(redisHash);
+        instanceA.put("dict:card:01", "身份证");
+        assertEquals(Optional.of("身份证"), instanceB.get("dict:card:01"));
+
+        // 写入的实例近端缓存中没有该key，按redis中的原值判断
+        ((NearCacheSupport) instanceA).evictNear(List.of("dict:card:01"));
+        instanceA.put("dict:card:01", "居民身份证");
+
+        assertMessage("dict:card:01");
+        awaitEquals(Optional.of("居民身份证"), () -> instanceB.get("dict:card:01"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void putAllPublishesOnlyChangedKeys(boolean redisHash) throws Exception {
+        TranslatorHelper.CacheSupport instanceA = newInstance(redisHash);
+        TranslatorHelper.CacheSupport instanceB = newInstance(redisHash);
+        instanceA.putAll(Map.of("dict:card:01", "身份证", "dict:card:02", "护照"));
+        instanceB.getAll(List.of("dict:card:01", "dict:card:02"));
+
+        TranslatorHelper.CacheSupport instanceC = newInstance(redisHash);
+        instanceC.putAll(Map.of("dict:card:01", "身份证", "dict:card:02", "普通护照", "dict:card:03", "军官证"));
+
+        assertMessage("dict:card:02");
+        awaitEquals(Map.of("dict:card:01", "身份证", "dict:card:02", "普通护照", "dict:card:03", "军官证"),
+                () -> instanceB.getAll(List.of("dict:card:01", "dict:card:02", "dict:card:03")));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void evictInvalidatesOtherInstance(boolean redisHash) throws Exception {
+        TranslatorHelper.CacheSupport instanceA = newInstance(redisHash);
+        TranslatorHelper.CacheSupport instanceB = newInstance(redisHash);
+        instanceA.putAll(Map.of("school:1", "一中", "school:2", "二中"));
+        instanceB.getAll(List.of("school:1", "school:2"));
+
+        instanceA.evict(List.of("school:1"));
+
+        assertMessage("school:1");
+        awaitEquals(Optional.empty(), () -> instanceB.get("school:1"));
+        assertEquals(Optional.of("二中"), instanceB.get("school:2"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void evictByPrefixInvalidatesOtherInstance(boolean redisHash) throws Exception {
+        TranslatorHelper.CacheSupport instanceA = newInstance(redisHash);
+        TranslatorHelper.CacheSupport instanceB = newInstance(redisHash);
+        instanceA.putAll(Map.of("dict:card:01", "身份证", "dict:card:02", "护照", "school:1", "一中"));
+        instanceB.getAll(List.of("dict:card:01", "dict:card:02", "school:1"));
+
+        instanceA.evictByPrefix("dict:card:");
+
+        assertMessage("dict:card:");
+        awaitEquals(Map.of(), () -> instanceB.getAll(List.of("dict:card:01", "dict:card:02")));
+        assertEquals(Optional.of("一中"), instanceB.get("school:1"));
+    }
+
+    /**
+     * 等待下一条失效消息，消息的最后一行为lastLine
+     */
+    private void assertMessage(String lastLine) throws InterruptedException {
+        String message = messageQueue.poll(10, TimeUnit.SECONDS);
+        assertNotNull(message, "没有收到失效消息");
+        assertTrue(message.endsWith("\n" + lastLine), message);
+    }
+
+    /**
+     * 各实例通过各自的订阅连接收到消息，等待其他实例清除近端缓存后读到新值；
+     * 近端缓存没有被清除时一直读到旧值
+     */
+    private static void awaitEquals(Object expected, Supplier<Object> actual) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!expected.equals(actual.get()) && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(expected, actual.get());
+    }
+
+    private TranslatorHelper.CacheSupport newInstance(boolean redisHash) {
+        TranslatorAspectProperties translatorAspectProperties = new TranslatorAspectProperties();
+        translatorAspectProperties.getNearCache().setEnabled(true);
+        translatorAspectProperties.getRedisHash().setEnabled(redisHash);
+        RedisCacheSupportConfig config = new RedisCacheSupportConfig(translatorAspectProperties);
+        ObjectProvider<TranslatorMetrics> metrics = new DefaultListableBeanFactory().getBeanProvider(TranslatorMetrics.class);
+        TranslatorHelper.CacheSupport cacheSupport = config.translatorRedisCacheSupport(redisTemplate, metrics);
+        RedisMessageListenerContainer container = config.translatorNearCacheListenerContainer(redisTemplate, cacheSupport);
+        container.afterPropertiesSet();
+        container.start();
+        containerList.add(container);
+        return cacheSupport;
+    }
+
+    private RedisMessageListenerContainer startContainer() {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.afterPropertiesSet();
+        container.start();
+        containerList.add(container);
+        return container;
+    }
+}
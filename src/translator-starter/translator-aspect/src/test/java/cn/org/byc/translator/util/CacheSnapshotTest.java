@@ -0,0 +1,94 @@
+package cn.org.byc.translator.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CacheSnapshotTest {
+
+    private static final int HEADER_SIZE = 24;
+
+    private static final Map<String, String> ENTRIES = Map.of("dict:card:01", "身份证", "school:1", "一中");
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void readWrittenSnapshot() throws IOException {
+        CacheSnapshot snapshot = openSnapshot(null);
+
+        assertEquals("身份证", snapshot.get("dict:card:01"));
+        assertEquals("一中", snapshot.get("school:1"));
+        assertNull(snapshot.get("school:2"));
+    }
+
+    @Test
+    void remainingMillisBoundedByMaxAge() throws IOException {
+        CacheSnapshot snapshot = openSnapshot(null);
+
+        long remainingMillis = snapshot.remainingMillis();
+        assertTrue(remainingMillis > 0 && remainingMillis <= TimeUnit.MINUTES.toMillis(30), String.valueOf(remainingMillis));
+        snapshot.invalidate();
+        assertEquals(0, snapshot.remainingMillis());
+    }
+
+    @Test
+    void ignoreInvalidSlotCount() throws IOException {
+        assertNull(openSnapshot(buffer -> buffer.putInt(20, 3)).get("school:1"));
+        assertNull(openSnapshot(buffer -> buffer.putInt(20, 0)).get("school:1"));
+        assertNull(openSnapshot(buffer -> buffer.putInt(20, 1 << 30)).get("school:1"));
+    }
+
+    @Test
+    void stopOnOffsetOutOfRange() throws IOException {
+        CacheSnapshot snapshot = openSnapshot(buffer -> {
+            for (int slot = 0; slot < slotCount(buffer); slot++) {
+                buffer.putInt(HEADER_SIZE + slot * 4, buffer.capacity() - 4);
+            }
+        });
+
+        assertNull(snapshot.get("school:1"));
+        assertNull(snapshot.get("dict:card:01"));
+    }
+
+    @Test
+    void boundProbeWithoutEmptySlot() throws IOException {
+        // 所有槽位指向同一个条目，没有空槽
+        CacheSnapshot snapshot = openSnapshot(buffer -> {
+            int dataStart = HEADER_SIZE + slotCount(buffer) * 4;
+            for (int slot = 0; slot < slotCount(buffer); slot++) {
+                buffer.putInt(HEADER_SIZE + slot * 4, dataStart);
+            }
+        });
+
+        assertNull(snapshot.get("school:2"));
+    }
+
+    private CacheSnapshot openSnapshot(Consumer<ByteBuffer> corruption) throws IOException {
+        Path path = Files.createTempFile(tempDir, "translator", ".snapshot");
+        new CacheSnapshot(path, TimeUnit.MINUTES.toMillis(30)).write(ENTRIES);
+        if (corruption != null) {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+            corruption.accept(buffer);
+            Files.write(path, buffer.array());
+        }
+        CacheSnapshot snapshot = new CacheSnapshot(path, TimeUnit.MINUTES.toMillis(30));
+        snapshot.open();
+        return snapshot;
+    }
+
+    private static int slotCount(ByteBuffer buffer) {
+        return buffer.getInt(20);
+    }
+}
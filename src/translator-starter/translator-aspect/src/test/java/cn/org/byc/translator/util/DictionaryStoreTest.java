@@ -0,0 +1,70 @@
+package cn.org.byc.translator.util;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class DictionaryStoreTest {
+
+    private JdbcDataSource dataSource;
+
+    @BeforeEach
+    void initDataSource() throws SQLException {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:dictionary;DB_CLOSE_DELAY=-1");
+        execute("drop table if exists dict_data",
+                "create table dict_data(dict_code varchar(32), dict_data_code varchar(32), "
+                        + "dict_display varchar(64), dict_eng_display varchar(64), update_time timestamp)",
+                "insert into dict_data values('card', '01', '身份证', 'ID card', now()), ('card', '02', '护照', 'Passport', now())");
+    }
+
+    @Test
+    void incrementalRefreshAppliesChanges() throws Exception {
+        DictionaryStore dictionaryStore = new DictionaryStore(dataSource, "select * from dict_data", List.of(), "update_time");
+        dictionaryStore.start(0, 0);
+        assertEquals("护照", dictionaryStore.get("card", "02", false));
+
+        Thread.sleep(10);
+        execute("update dict_data set dict_display = '普通护照', update_time = now() where dict_data_code = '02'",
+                "insert into dict_data values('card', '03', '军官证', 'Officer card', now())",
+                "delete from dict_data where dict_data_code = '01'");
+        dictionaryStore.refresh();
+
+        assertEquals("普通护照", dictionaryStore.get("card", "02", false));
+        assertEquals("Officer card", dictionaryStore.get("card", "03", true));
+        // 只增量刷新时发现不了删除
+        assertEquals("身份证", dictionaryStore.get("card", "01", false));
+    }
+
+    @Test
+    void fullReloadRemovesDeletedRows() throws Exception {
+        DictionaryStore dictionaryStore = new DictionaryStore(dataSource, "select * from dict_data", List.of(), "update_time");
+        dictionaryStore.start(0, 1);
+        assertEquals("身份证", dictionaryStore.get("card", "01", false));
+
+        execute("delete from dict_data where dict_data_code = '01'");
+        dictionaryStore.refresh();
+        assertEquals("身份证", dictionaryStore.get("card", "01", false));
+
+        Thread.sleep(1100);
+        dictionaryStore.refresh();
+        assertNull(dictionaryStore.get("card", "01", false));
+        assertEquals("护照", dictionaryStore.get("card", "02", false));
+    }
+
+    private void execute(String... sqls) throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            for (String sql : sqls) {
+                statement.execute(sql);
+            }
+        }
+    }
+}
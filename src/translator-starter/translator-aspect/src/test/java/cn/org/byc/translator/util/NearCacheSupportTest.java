@@ -0,0 +1,175 @@
+package cn.org.byc.translator.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 两个实例共用一个远程缓存，失效消息由内存中的频道转发给所有实例(包括发送者自己)
+ */
+class NearCacheSupportTest {
+
+    private final Map<String, String> remoteMap = new ConcurrentHashMap<>();
+
+    private final List<String> messageList = new ArrayList<>();
+
+    private final List<NearCacheSupport> instanceList = new ArrayList<>();
+
+    private Cache<String, String> nearCacheA;
+
+    private Cache<String, String> nearCacheB;
+
+    private NearCacheSupport instanceA;
+
+    private NearCacheSupport instanceB;
+
+    @BeforeEach
+    void init() {
+        nearCacheA = Caffeine.newBuilder().build();
+        nearCacheB = Caffeine.newBuilder().build();
+        instanceA = newInstance(nearCacheA);
+        instanceB = newInstance(nearCacheB);
+    }
+
+    @Test
+    void fillAfterMissDoesNotPublish() {
+        assertTrue(instanceA.get("dict:card:01").isEmpty());
+        instanceA.putAll(Map.of("dict:card:01", "身份证", "dict:card:02", "护照"));
+        instanceA.put("school:1", "一中");
+
+        assertEquals("身份证", nearCacheA.getIfPresent("dict:card:01"));
+        assertEquals("一中", remoteMap.get("school:1"));
+        assertTrue(messageList.isEmpty());
+
+        // 另一个实例从远程缓存读取并放入近端缓存
+        assertEquals(Optional.of("护照"), instanceB.get("dict:card:02"));
+        assertEquals(Map.of("dict:card:01", "身份证", "school:1", "一中"),
+                instanceB.getAll(List.of("dict:card:01", "school:1", "school:2")));
+        assertEquals("护照", nearCacheB.getIfPresent("dict:card:02"));
+        assertEquals("一中", nearCacheB.getIfPresent("school:1"));
+        // 同样的值再写一次不算变化
+        instanceA.put("dict:card:01", "身份证");
+        assertTrue(messageList.isEmpty());
+    }
+
+    @Test
+    void putOverwritingKnownValueInvalidatesOtherInstance() {
+        instanceA.put("dict:card:01", "身份证");
+        instanceB.get("dict:card:01");
+        assertEquals("身份证", nearCacheB.getIfPresent("dict:card:01"));
+
+        instanceA.put("dict:card:01", "居民身份证");
+
+        assertEquals(1, messageList.size());
+        assertNull(nearCacheB.getIfPresent("dict:card:01"));
+        assertEquals("居民身份证", nearCacheA.getIfPresent("dict:card:01"));
+        assertEquals(Optional.of("居民身份证"), instanceB.get("dict:card:01"));
+    }
+
+    @Test
+    void putOverwritingRemoteValueWithoutNearEntryInvalidatesOtherInstance() {
+        instanceA.put("dict:card:01", "身份证");
+        instanceB.get("dict:card:01");
+        nearCacheA.invalidateAll();
+
+        instanceA.put("dict:card:01", "居民身份证");
+
+        assertEquals(1, messageList.size());
+        assertNull(nearCacheB.getIfPresent("dict:card:01"));
+        assertEquals(Optional.of("居民身份证"), instanceB.get("dict:card:01"));
+    }
+
+    @Test
+    void putAllPublishesOnlyChangedKeys() {
+        instanceA.putAll(Map.of("dict:card:01", "身份证", "dict:card:02", "护照"));
+        instanceB.getAll(List.of("dict:card:01", "dict:card:02"));
+
+        instanceA.putAll(Map.of("dict:card:01", "身份证", "dict:card:02", "普通护照", "dict:card:03", "军官证"));
+
+        assertEquals(1, messageList.size());
+        assertTrue(messageList.get(0).endsWith("\ndict:card:02"));
+        assertEquals("身份证", nearCacheB.getIfPresent("dict:card:01"));
+        assertNull(nearCacheB.getIfPresent("dict:card:02"));
+        assertEquals(Optional.of("普通护照"), instanceB.get("dict:card:02"));
+    }
+
+    @Test
+    void evictInvalidatesOtherInstance() {
+        instanceA.putAll(Map.of("school:1", "一中", "school:2", "二中"));
+        instanceB.getAll(List.of("school:1", "school:2"));
+
+        instanceA.evict(List.of("school:1"));
+
+        assertEquals(1, messageList.size());
+        assertNull(nearCacheA.getIfPresent("school:1"));
+        assertNull(nearCacheB.getIfPresent("school:1"));
+        assertEquals("二中", nearCacheB.getIfPresent("school:2"));
+        assertTrue(instanceB.get("school:1").isEmpty());
+    }
+
+    @Test
+    void evictByPrefixInvalidatesOtherInstance() {
+        instanceA.putAll(Map.of("dict:card:01", "身份证", "dict:card:02", "护照", "school:1", "一中"));
+        instanceB.getAll(List.of("dict:card:01", "dict:card:02", "school:1"));
+
+        instanceA.evictByPrefix("dict:card:");
+
+        assertEquals(1, messageList.size());
+        assertNull(nearCacheB.getIfPresent("dict:card:01"));
+        assertNull(nearCacheB.getIfPresent("dict:card:02"));
+        assertEquals("一中", nearCacheB.getIfPresent("school:1"));
+        assertTrue(instanceB.get("dict:card:02").isEmpty());
+    }
+
+    private NearCacheSupport newInstance(Cache<String, String> nearCache) {
+        NearCacheSupport instance = new NearCacheSupport(nearCache, new MapCacheSupport(), message -> {
+            messageList.add(message);
+            instanceList.forEach(e -> e.onInvalidationMessage(message));
+        });
+        instanceList.add(instance);
+        return instance;
+    }
+
+    /**
+     * 远程缓存，所有实例共用remoteMap
+     */
+    private class MapCacheSupport implements TranslatorHelper.CacheSupport {
+
+        @Override
+        public void put(String cacheKey, String cacheValue) {
+            remoteMap.put(cacheKey, cacheValue == null ? NULL_VALUE : cacheValue);
+        }
+
+        @Override
+        public Optional<String> get(String cacheKey) {
+            return Optional.ofNullable(remoteMap.get(cacheKey));
+        }
+
+        @Override
+        public void evict(Collection<String> cacheKeys) {
+            remoteMap.keySet().removeAll(cacheKeys);
+        }
+
+        @Override
+        public void evictByPrefix(String cacheKeyPrefix) {
+            remoteMap.keySet().removeIf(cacheKey -> cacheKey.startsWith(cacheKeyPrefix));
+        }
+
+        @Override
+        public boolean isLocalCache() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package cn.org.byc.translator.util;
+
+import cn.org.byc.translator.annotation.TranslatorField;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * 批量查询结果第一列的字符串形式与关联字段的值不同时仍能匹配到key
+ */
+class TranslatorHelperBatchQueryTest {
+
+    private final Map<String, String> cache = new ConcurrentHashMap<>();
+
+    private TranslatorHelper translatorHelper;
+
+    @BeforeEach
+    void init() throws SQLException {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:batch;DB_CLOSE_DELAY=-1");
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("drop table if exists school");
+            statement.execute("drop table if exists grade");
+            statement.execute("drop table if exists city");
+            statement.execute("create table school(code char(8), name varchar(64))");
+            statement.execute("create table grade(score decimal(10, 2), name varchar(64))");
+            statement.execute("create table city(code varchar_ignorecase(8), name varchar(64))");
+            statement.execute("insert into school values('s1', '一中'), ('s2', '二中')");
+            statement.execute("insert into grade values(1, '及格'), (2.5, '良好')");
+            statement.execute("insert into city values('BJ', '北京'), ('SH', '上海')");
+        }
+        translatorHelper = new TranslatorHelper(dataSource,
+                "select dict_display from dict_data where dict_code = '%s' and dict_data_code = ?",
+                "select dict_eng_display from dict_data where dict_code = '%s' and dict_data_code = ?",
+                new TranslatorHelper.CacheSupport() {
+                    @Override
+                    public void put(String cacheKey, String cacheValue) {
+                        cache.put(cacheKey, cacheValue);
+                    }
+
+                    @Override
+                    public Optional<String> get(String cacheKey) {
+                        return Optional.ofNullable(cache.get(cacheKey));
+                    }
+                });
+    }
+
+    @Test
+    void matchPaddedCharColumn() {
+        List<Vo> voList = List.of(new Vo("s1", null, null), new Vo("s2", null, null), new Vo("s3", null, null));
+
+        translatorHelper.startTrans(voList);
+
+        assertEquals("一中", voList.get(0).schoolName);
+        assertEquals("二中", voList.get(1).schoolName);
+        assertNull(voList.get(2).schoolName);
+        assertEquals(TranslatorHelper.CacheSupport.NULL_VALUE, cache.get("school:s3"));
+    }
+
+    @Test
+    void matchDecimalColumnWithDifferentScale() {
+        List<Vo> voList = List.of(new Vo(null, new BigDecimal("1"), null), new Vo(null, new BigDecimal("2.50"), null));
+
+        translatorHelper.startTrans(voList);
+
+        assertEquals("及格", voList.get(0).gradeName);
+        assertEquals("良好", voList.get(1).gradeName);
+        assertEquals("及格", cache.get("grade:1"));
+    }
+
+    @Test
+    void queryUnmatchedKeyOneByOne() {
+        // 不区分大小写的列返回的是库中的写法，匹配不到时逐个查询
+        List<Vo> voList = List.of(new Vo(null, null, "bj"), new Vo(null, null, "SH"));
+
+        translatorHelper.startTrans(voList);
+
+        assertEquals("北京", voList.get(0).cityName);
+        assertEquals("上海", voList.get(1).cityName);
+        assertEquals("北京", cache.get("city:bj"));
+    }
+
+    public static class Vo {
+        String schoolCode;
+        @TranslatorField(associateField = "schoolCode", sql = "select name from school where code = ?",
+                batchSql = "select code, name from school where code in (%s)", cacheKeyPrefix = "school:")
+        String schoolName;
+        BigDecimal score;
+        @TranslatorField(associateField = "score", sql = "select name from grade where score = ?",
+                batchSql = "select score, name from grade where score in (%s)", cacheKeyPrefix = "grade:")
+        String gradeName;
+        String cityCode;
+        @TranslatorField(associateField = "cityCode", sql = "select name from city where code = ?",
+                batchSql = "select code, name from city where code in (%s)", cacheKeyPrefix = "city:")
+        String cityName;
+
+        Vo(String schoolCode, BigDecimal score, String cityCode) {
+            this.schoolCode = schoolCode;
+            this.score = score;
+            this.cityCode = cityCode;
+        }
+
+        public String getSchoolCode() {
+            return schoolCode;
+        }
+
+        public void setSchoolCode(String schoolCode) {
+            this.schoolCode = schoolCode;
+        }
+
+        public String getSchoolName() {
+            return schoolName;
+        }
+
+        public void setSchoolName(String schoolName) {
+            this.schoolName = schoolName;
+        }
+
+        public BigDecimal getScore() {
+            return score;
+        }
+
+        public void setScore(BigDecimal score) {
+            this.score = score;
+        }
+
+        public String getGradeName() {
+            return gradeName;
+        }
+
+        public void setGradeName(String gradeName) {
+            this.gradeName = gradeName;
+        }
+
+        public String getCityCode() {
+            return cityCode;
+        }
+
+        public void setCityCode(String cityCode) {
+            this.cityCode = cityCode;
+        }
+
+        public String getCityName() {
+            return cityName;
+        }
+
+        public void setCityName(String cityName) {
+            this.cityName = cityName;
+        }
+    }
+}
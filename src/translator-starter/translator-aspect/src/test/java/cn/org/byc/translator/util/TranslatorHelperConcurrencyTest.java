@@ -0,0 +1,513 @@
+package cn.org.byc.translator.util;
+
+import cn.org.byc.translator.annotation.TranslatorField;
+import cn.org.byc.translator.annotation.TranslatorNested;
+import cn.org.byc.translator.processor.FieldDescriptor;
+import cn.org.byc.translator.processor.TranslatorDescriptor;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 数千个任务在数百个线程上同时转译多个未注册的类型：每个类型只注册一次，所有转译字段都被转译。
+ * <p>
+ * 部分测试类型使用手写的编译期转译信息，TranslatorHelper注册一个类型时创建一次对应的描述类，据此计数；
+ * TreeNode使用注解，覆盖枚举翻译源和循环嵌套
+ */
+class TranslatorHelperConcurrencyTest {
+
+    private static final int THREAD_COUNT = 256;
+
+    private static final int TASK_COUNT = 4000;
+
+    private static final int ROUNDS = 5;
+
+    private static final Map<Class<?>, AtomicInteger> REGISTER_COUNTS = new ConcurrentHashMap<>();
+
+    /**
+     * 当前线程正在执行的转译，远程缓存返回的值带上该标记
+     */
+    private static final ThreadLocal<String> TRANSLATION_TAG = new ThreadLocal<>();
+
+    private static JdbcDataSource dataSource;
+
+    @BeforeAll
+    static void initDataSource() throws Exception {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:concurrency;DB_CLOSE_DELAY=-1");
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("create table dict_data(dict_code varchar(32), dict_data_code varchar(32), "
+                    + "dict_display varchar(64), dict_eng_display varchar(64))");
+            statement.execute("create table school(id int, name varchar(64))");
+            statement.execute("insert into dict_data values('card', '01', '身份证', 'ID card'), ('card', '02', '护照', 'Passport')");
+            statement.execute("insert into school values(1, '一中'), (2, '二中')");
+        }
+    }
+
+    @Test
+    void registerOnceAndTranslateAllFields() throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            REGISTER_COUNTS.clear();
+            TranslatorHelper translatorHelper = newTranslatorHelper(new MapCacheSupport());
+            runConcurrently(seed -> () -> {
+                switch (seed % 6) {
+                    case 0 -> translateBase(translatorHelper, seed);
+                    case 1 -> translateSchool(translatorHelper, seed);
+                    case 2 -> translatePerson(translatorHelper, seed);
+                    case 3 -> translateOrder(translatorHelper, seed);
+                    case 4 -> translateTree(translatorHelper, seed);
+                    default -> translateMixed(translatorHelper, seed);
+                }
+                return null;
+            });
+
+            for (Class<?> type : List.of(BaseVo.class, SchoolVo.class, PersonVo.class, OrderVo.class)) {
+                assertEquals(1, REGISTER_COUNTS.get(type).get(), type.getSimpleName() + "应只注册一次");
+            }
+        }
+    }
+
+    /**
+     * 非本地缓存时每次转译使用自己的去重map：远程缓存按调用线程上的转译标记返回值，
+     * 去重map被并发的转译共用或在同一线程的前后两次转译间复用时，会读到其他转译的标记
+     */
+    @Test
+    void dedupMapIsScopedToOneTranslation() throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            TranslatorHelper translatorHelper = newTranslatorHelper(new TaggingCacheSupport());
+            translatorHelper.setWindowSize(2);
+            runConcurrently(seed -> () -> {
+                String tag = "#" + seed;
+                TRANSLATION_TAG.set(tag);
+                try {
+                    List<SchoolVo> schoolList = new ArrayList<>();
+                    for (int i = 0; i < 5; i++) {
+                        schoolList.add(new SchoolVo(cardType(seed + i), schoolId(seed + i)));
+                    }
+                    if (seed % 2 == 0) {
+                        translatorHelper.startTrans(schoolList);
+                    } else {
+                        // 流式转译按窗口分批，去重map跨越同一个流的多个窗口
+                        Iterator<SchoolVo> iterator = translatorHelper.startTransIterator(schoolList.iterator());
+                        iterator.forEachRemaining(e -> { });
+                    }
+                    for (SchoolVo school : schoolList) {
+                        for (String value : List.of(school.cardTypeName, school.cardTypeEngName, school.schoolName)) {
+                            assertTrue(value.endsWith(tag), value + "不是本次转译" + tag + "读到的值");
+                        }
+                    }
+                } finally {
+                    TRANSLATION_TAG.remove();
+                }
+                return null;
+            });
+        }
+    }
+
+    /**
+     * 在THREAD_COUNT个线程上同时开始TASK_COUNT个任务
+     */
+    private static void runConcurrently(Function<Integer, Callable<Object>> taskFactory) throws Exception {
+        CountDownLatch startLatch = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newFixedThreadPool(THREAD_COUNT);
+        try {
+            List<Future<?>> futureList = new ArrayList<>(TASK_COUNT);
+            for (int i = 0; i < TASK_COUNT; i++) {
+                Callable<Object> task = taskFactory.apply(i);
+                futureList.add(executorService.submit(() -> {
+                    startLatch.await();
+                    return task.call();
+                }));
+            }
+            startLatch.countDown();
+            for (Future<?> future : futureList) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private static TranslatorHelper newTranslatorHelper(TranslatorHelper.CacheSupport cacheSupport) {
+        return new TranslatorHelper(dataSource,
+                "select dict_display from dict_data where dict_code = '%s' and dict_data_code = ?",
+                "select dict_eng_display from dict_data where dict_code = '%s' and dict_data_code = ?",
+                cacheSupport);
+    }
+
+    private static void translateBase(TranslatorHelper translatorHelper, int seed) {
+        BaseVo base = new BaseVo(cardType(seed));
+        translatorHelper.startTrans(base);
+        assertBase(base, seed);
+    }
+
+    private static void translateSchool(TranslatorHelper translatorHelper, int seed) {
+        SchoolVo school = new SchoolVo(cardType(seed), schoolId(seed));
+        translatorHelper.startTrans(List.of(school));
+        assertSchool(school, seed);
+    }
+
+    private static void translatePerson(TranslatorHelper translatorHelper, int seed) {
+        PersonVo person = new PersonVo(cardType(seed + 1), new SchoolVo(cardType(seed), schoolId(seed)));
+        translatorHelper.startTrans(person);
+        assertBase(person, seed + 1);
+        assertSchool(person.school, seed);
+    }
+
+    private static void translateOrder(TranslatorHelper translatorHelper, int seed) {
+        OrderVo order = new OrderVo(schoolId(seed + 1), List.of(
+                new PersonVo(cardType(seed), new SchoolVo(cardType(seed), schoolId(seed))),
+                new PersonVo(cardType(seed + 1), null)));
+        translatorHelper.startTrans(Map.of("order", order));
+        assertEquals(schoolName(seed + 1), order.schoolName);
+        assertBase(order.persons.get(0), seed);
+        assertSchool(order.persons.get(0).school, seed);
+        assertBase(order.persons.get(1), seed + 1);
+    }
+
+    /**
+     * 父子节点互相引用，从子节点开始转译
+     */
+    private static void translateTree(TranslatorHelper translatorHelper, int seed) {
+        TreeNode root = new TreeNode(level(seed), schoolId(seed));
+        TreeNode child = new TreeNode(level(seed + 1), schoolId(seed + 1));
+        root.children = List.of(child, root);
+        child.parent = root;
+        child.children = List.of(root);
+        translatorHelper.startTrans(child);
+        assertTree(root, seed);
+        assertTree(child, seed + 1);
+    }
+
+    /**
+     * 一个集合中混合不同类型的对象
+     */
+    private static void translateMixed(TranslatorHelper translatorHelper, int seed) {
+        BaseVo base = new BaseVo(cardType(seed));
+        SchoolVo school = new SchoolVo(cardType(seed + 1), schoolId(seed + 1));
+        TreeNode node = new TreeNode(level(seed + 1), schoolId(seed));
+        node.parent = node;
+        translatorHelper.startTrans(List.of(base, school, node));
+        assertBase(base, seed);
+        assertSchool(school, seed + 1);
+        assertEquals(level(seed + 1).toString(), node.levelName);
+        assertEquals(schoolName(seed), node.schoolName);
+    }
+
+    private static void assertBase(BaseVo base, int seed) {
+        assertEquals(seed % 2 == 0 ? "身份证" : "护照", base.cardTypeName);
+        assertEquals(seed % 2 == 0 ? "ID card" : "Passport", base.cardTypeEngName);
+    }
+
+    private static void assertSchool(SchoolVo school, int seed) {
+        assertBase(school, seed);
+        assertEquals(schoolName(seed), school.schoolName);
+    }
+
+    private static String cardType(int seed) {
+        return seed % 2 == 0 ? "01" : "02";
+    }
+
+    private static Integer schoolId(int seed) {
+        return seed % 2 + 1;
+    }
+
+    private static String schoolName(int seed) {
+        return seed % 2 == 0 ? "一中" : "二中";
+    }
+
+    private static Level level(int seed) {
+        return seed % 2 == 0 ? Level.HIGH : Level.LOW;
+    }
+
+    private static void assertTree(TreeNode node, int seed) {
+        assertEquals(seed % 2 == 0 ? "高" : "低", node.levelName);
+        assertEquals(schoolName(seed), node.schoolName);
+    }
+
+    static class BaseVo {
+        String cardType;
+        String cardTypeName;
+        String cardTypeEngName;
+
+        BaseVo(String cardType) {
+            this.cardType = cardType;
+        }
+    }
+
+    static class SchoolVo extends BaseVo {
+        Integer schoolId;
+        String schoolName;
+
+        SchoolVo(String cardType, Integer schoolId) {
+            super(cardType);
+            this.schoolId = schoolId;
+        }
+    }
+
+    static class PersonVo extends BaseVo {
+        SchoolVo school;
+
+        PersonVo(String cardType, SchoolVo school) {
+            super(cardType);
+            this.school = school;
+        }
+    }
+
+    static class OrderVo {
+        Integer schoolId;
+        String schoolName;
+        List<PersonVo> persons;
+
+        OrderVo(Integer schoolId, List<PersonVo> persons) {
+            this.schoolId = schoolId;
+            this.persons = persons;
+        }
+    }
+
+    public enum Level {
+        HIGH("高"), LOW("低");
+
+        private final String label;
+
+        Level(String label) {
+            this.label = label;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    /**
+     * 转译时通过setter写入转译字段
+     */
+    public static class TreeNode {
+        Level level;
+        @TranslatorField(associateField = "level", enumType = Level.class)
+        String levelName;
+        Integer schoolId;
+        @TranslatorField(associateField = "schoolId", sql = "select name from school where id = ?",
+                batchSql = "select id, name from school where id in (%s)", cacheKeyPrefix = "school:")
+        String schoolName;
+        @TranslatorNested
+        TreeNode parent;
+        List<TreeNode> children;
+
+        TreeNode(Level level, Integer schoolId) {
+            this.level = level;
+            this.schoolId = schoolId;
+        }
+
+        public Level getLevel() {
+            return level;
+        }
+
+        public void setLevel(Level level) {
+            this.level = level;
+        }
+
+        public String getLevelName() {
+            return levelName;
+        }
+
+        public void setLevelName(String levelName) {
+            this.levelName = levelName;
+        }
+
+        public Integer getSchoolId() {
+            return schoolId;
+        }
+
+        public void setSchoolId(Integer schoolId) {
+            this.schoolId = schoolId;
+        }
+
+        public String getSchoolName() {
+            return schoolName;
+        }
+
+        public void setSchoolName(String schoolName) {
+            this.schoolName = schoolName;
+        }
+
+        public TreeNode getParent() {
+            return parent;
+        }
+
+        public void setParent(TreeNode parent) {
+            this.parent = parent;
+        }
+
+        public List<TreeNode> getChildren() {
+            return children;
+        }
+
+        public void setChildren(List<TreeNode> children) {
+            this.children = children;
+        }
+    }
+
+    private static class MapCacheSupport implements TranslatorHelper.CacheSupport {
+
+        private final Map<String, String> cache = new ConcurrentHashMap<>();
+
+        @Override
+        public void put(String cacheKey, String cacheValue) {
+            cache.put(cacheKey, cacheValue);
+        }
+
+        @Override
+        public Optional<String> get(String cacheKey) {
+            return Optional.ofNullable(cache.get(cacheKey));
+        }
+    }
+
+    /**
+     * 远程缓存，任何key都命中，值为key加上调用线程上的转译标记
+     */
+    private static class TaggingCacheSupport implements TranslatorHelper.CacheSupport {
+
+        @Override
+        public void put(String cacheKey, String cacheValue) {
+            throw new AssertionError("所有key都应命中缓存：" + cacheKey);
+        }
+
+        @Override
+        public Optional<String> get(String cacheKey) {
+            return Optional.of(cacheKey + TRANSLATION_TAG.get());
+        }
+
+        @Override
+        public Map<String, String> getAll(Collection<String> cacheKeys) {
+            return cacheKeys.stream().collect(Collectors.toMap(Function.identity(), e -> get(e).orElseThrow()));
+        }
+
+        @Override
+        public boolean isLocalCache() {
+            return false;
+        }
+    }
+
+    /**
+     * 创建时为type计数一次
+     */
+    abstract static class CountingDescriptor implements TranslatorDescriptor {
+
+        private final Class<?> type;
+
+        CountingDescriptor(Class<?> type) {
+            this.type = type;
+            REGISTER_COUNTS.computeIfAbsent(type, e -> new AtomicInteger()).incrementAndGet();
+        }
+
+        @Override
+        public Class<?> type() {
+            return type;
+        }
+
+        @Override
+        public List<Function<Object, Object>> nestedGetters() {
+            return List.of();
+        }
+    }
+
+    public static class BaseVo$$TranslatorDescriptor extends CountingDescriptor {
+
+        public BaseVo$$TranslatorDescriptor() {
+            super(BaseVo.class);
+        }
+
+        @Override
+        public List<FieldDescriptor> translatorFields() {
+            return List.of(
+                    new FieldDescriptor("cardTypeName", List.of(e -> ((BaseVo) e).cardType),
+                            (e, v) -> ((BaseVo) e).cardTypeName = (String) v, "card", "", "", ""),
+                    new FieldDescriptor("cardTypeEngName", List.of(e -> ((BaseVo) e).cardType),
+                            (e, v) -> ((BaseVo) e).cardTypeEngName = (String) v, "card", "", "", ""));
+        }
+    }
+
+    public static class SchoolVo$$TranslatorDescriptor extends CountingDescriptor {
+
+        public SchoolVo$$TranslatorDescriptor() {
+            super(SchoolVo.class);
+        }
+
+        @Override
+        public List<FieldDescriptor> translatorFields() {
+            return List.of(new FieldDescriptor("schoolName", List.of(e -> ((SchoolVo) e).schoolId),
+                    (e, v) -> ((SchoolVo) e).schoolName = (String) v, "",
+                    "select name from school where id = ?", "select id, name from school where id in (%s)", "school:"));
+        }
+    }
+
+    public static class PersonVo$$TranslatorDescriptor extends CountingDescriptor {
+
+        public PersonVo$$TranslatorDescriptor() {
+            super(PersonVo.class);
+        }
+
+        @Override
+        public List<FieldDescriptor> translatorFields() {
+            return List.of();
+        }
+
+        @Override
+        public List<Function<Object, Object>> nestedGetters() {
+            return List.of(e -> ((PersonVo) e).school);
+        }
+
+        @Override
+        public List<String> nestedFieldNames() {
+            return List.of("school");
+        }
+    }
+
+    public static class OrderVo$$TranslatorDescriptor extends CountingDescriptor {
+
+        public OrderVo$$TranslatorDescriptor() {
+            super(OrderVo.class);
+        }
+
+        @Override
+        public List<FieldDescriptor> translatorFields() {
+            return List.of(new FieldDescriptor("schoolName", List.of(e -> ((OrderVo) e).schoolId),
+                    (e, v) -> ((OrderVo) e).schoolName = (String) v, "",
+                    "select name from school where id = ?", "select id, name from school where id in (%s)", "school:"));
+        }
+
+        @Override
+        public List<Function<Object, Object>> nestedGetters() {
+            return List.of(e -> ((OrderVo) e).persons);
+        }
+
+        @Override
+        public List<String> nestedFieldNames() {
+            return List.of("persons");
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package cn.org.byc.translator.util;
+
+import cn.org.byc.translator.annotation.TranslatorField;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 并行查库时没有批量查询模板的转译器按并发查库数拆分，每个任务借一个连接逐个查询
+ */
+class TranslatorHelperParallelTest {
+
+    private static final int PARALLELISM = 3;
+
+    private final AtomicInteger connectionCount = new AtomicInteger();
+
+    private ExecutorService executorService;
+
+    private TranslatorHelper translatorHelper;
+
+    @BeforeEach
+    void init() throws SQLException {
+        JdbcDataSource h2DataSource = new JdbcDataSource();
+        h2DataSource.setURL("jdbc:h2:mem:parallel;DB_CLOSE_DELAY=-1");
+        try (Connection connection = h2DataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("drop table if exists school");
+            statement.execute("create table school(id int, name varchar(64))");
+            for (int id = 1; id <= 20; id++) {
+                statement.execute("insert into school values(" + id + ", 'school" + id + "')");
+            }
+        }
+        // 记录借出的连接数
+        DataSource dataSource = (DataSource) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{DataSource.class}, (proxy, method, args) -> {
+                    if ("getConnection".equals(method.getName())) {
+                        connectionCount.incrementAndGet();
+                    }
+                    try {
+                        return method.invoke(h2DataSource, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+
+        Map<String, String> cache = new ConcurrentHashMap<>();
+        translatorHelper = new TranslatorHelper(dataSource,
+                "select dict_display from dict_data where dict_code = '%s' and dict_data_code = ?",
+                "select dict_eng_display from dict_data where dict_code = '%s' and dict_data_code = ?",
+                new TranslatorHelper.CacheSupport() {
+                    @Override
+                    public void put(String cacheKey, String cacheValue) {
+                        cache.put(cacheKey, cacheValue);
+                    }
+
+                    @Override
+                    public Optional<String> get(String cacheKey) {
+                        return Optional.ofNullable(cache.get(cacheKey));
+                    }
+                });
+        executorService = Executors.newFixedThreadPool(PARALLELISM);
+        translatorHelper.setParallelExecutor(executorService, PARALLELISM);
+    }
+
+    @AfterEach
+    void shutdown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    void splitKeysWithoutBatchSqlByParallelism() {
+        List<SchoolVo> schoolList = new ArrayList<>();
+        for (int id = 1; id <= 20; id++) {
+            schoolList.add(new SchoolVo(id));
+        }
+
+        translatorHelper.startTrans(schoolList);
+
+        for (SchoolVo school : schoolList) {
+            assertEquals("school" + school.schoolId, school.schoolName);
+        }
+        assertEquals(PARALLELISM, connectionCount.get());
+    }
+
+    public static class SchoolVo {
+        Integer schoolId;
+        @TranslatorField(associateField = "schoolId", sql = "select name from school where id = ?", cacheKeyPrefix = "school:")
+        String schoolName;
+
+        SchoolVo(Integer schoolId) {
+            this.schoolId = schoolId;
+        }
+
+        public Integer getSchoolId() {
+            return schoolId;
+        }
+
+        public void setSchoolId(Integer schoolId) {
+            this.schoolId = schoolId;
+        }
+
+        public String getSchoolName() {
+            return schoolName;
+        }
+
+        public void setSchoolName(String schoolName) {
+            this.schoolName = schoolName;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package cn.org.byc.translator.benchmark;
+
+import cn.org.byc.translator.config.TranslatorAspectProperties;
+import cn.org.byc.translator.util.TranslatorHelper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.h2.jdbcx.JdbcDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 基准测试的公共数据：内存H2数据库、缓存实现、测试对象
+ */
+final class BenchmarkSupport {
+
+    /**
+     * 字典card的值数量
+     */
+    static final int DICT_SIZE = 100;
+
+    /**
+     * school表的行数
+     */
+    static final int SCHOOL_SIZE = 1000;
+
+    private static final AtomicInteger DB_INDEX = new AtomicInteger();
+
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * 创建内存数据库，包含dict_data和school两张表
+     */
+    static DataSource dataSource() throws SQLException {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:translator" + DB_INDEX.incrementAndGet() + ";DB_CLOSE_DELAY=-1");
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("create table dict_data(dict_code varchar(32), dict_data_code varchar(32), " +
+                    "dict_display varchar(64), dict_eng_display varchar(64), primary key (dict_code, dict_data_code))");
+            statement.execute("create table school(id int primary key, name varchar(64))");
+            try (PreparedStatement insert = connection.prepareStatement("insert into dict_data values('card', ?, ?, ?)")) {
+                for (int i = 0; i < DICT_SIZE; i++) {
+                    insert.setString(1, String.valueOf(i));
+                    insert.setString(2, "证件" + i);
+                    insert.setString(3, "card " + i);
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+            try (PreparedStatement insert = connection.prepareStatement("insert into school values(?, ?)")) {
+                for (int i = 0; i < SCHOOL_SIZE; i++) {
+                    insert.setInt(1, i);
+                    insert.setString(2, "学校" + i);
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+        }
+        return dataSource;
+    }
+
+    /**
+     * 按默认配置创建TranslatorHelper
+     */
+    static TranslatorHelper translatorHelper(DataSource dataSource, TranslatorHelper.CacheSupport cacheSupport) {
+        TranslatorAspectProperties properties = new TranslatorAspectProperties();
+        TranslatorHelper translatorHelper = new TranslatorHelper(dataSource,
+                properties.getDictQuerySql(),
+                properties.getDictQuerySqlEng(),
+                cacheSupport);
+        translatorHelper.setDictBatchQuerySql(properties.getDictBatchQuerySql());
+        translatorHelper.setDictBatchQuerySqlEng(properties.getDictBatchQuerySqlEng());
+        translatorHelper.setBatchSize(properties.getBatchSize());
+        return translatorHelper;
+    }
+
+    /**
+     * 与自动配置相同的Caffeine缓存
+     */
+    static TranslatorHelper.CacheSupport caffeineCacheSupport() {
+        Cache<String, String> cache = Caffeine.newBuilder()
+                .expireAfterWrite(30, TimeUnit.MINUTES)
+                .initialCapacity(128)
+                .maximumSize(2048)
+                .build();
+        return new TranslatorHelper.CacheSupport() {
+            @Override
+            public void put(String cacheKey, String cacheValue) {
+                cache.put(cacheKey, cacheValue == null ? NULL_VALUE : cacheValue);
+            }
+
+            @Override
+            public Optional<String> get(String cacheKey) {
+                return Optional.ofNullable(cache.getIfPresent(cacheKey));
+            }
+
+            @Override
+            public Map<String, String> getAll(Collection<String> cacheKeys) {
+                return cache.getAllPresent(cacheKeys);
+            }
+        };
+    }
+
+    /**
+     * 最简单的缓存实现，用于和Caffeine对比，衡量缓存本身的开销
+     */
+    static TranslatorHelper.CacheSupport stubCacheSupport() {
+        Map<String, String> cache = new ConcurrentHashMap<>();
+        return new TranslatorHelper.CacheSupport() {
+            @Override
+            public void put(String cacheKey, String cacheValue) {
+                cache.put(cacheKey, cacheValue == null ? NULL_VALUE : cacheValue);
+            }
+
+            @Override
+            public Optional<String> get(String cacheKey) {
+                return Optional.ofNullable(cache.get(cacheKey));
+            }
+        };
+    }
+
+    static TranslatorHelper.CacheSupport cacheSupport(String cacheType) {
+        return "caffeine".equals(cacheType) ? caffeineCacheSupport() : stubCacheSupport();
+    }
+
+    static List<DemoVO> demoList(int size) {
+        List<DemoVO> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(new DemoVO(String.valueOf(i % DICT_SIZE), i % SCHOOL_SIZE));
+        }
+        return list;
+    }
+
+    static List<SingleQueryVO> singleQueryList(int size) {
+        List<SingleQueryVO> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(new SingleQueryVO(i % SCHOOL_SIZE));
+        }
+        return list;
+    }
+
+    /**
+     * 每个订单带一个客户和itemSize条明细，每条明细带一个客户
+     */
+    static List<OrderVO> orderList(int size, int itemSize) {
+        List<OrderVO> list = new ArrayList<>(size);
+        int seq = 0;
+        for (int i = 0; i < size; i++) {
+            OrderVO order = new OrderVO();
+            order.setStatus(String.valueOf(i % DICT_SIZE));
+            order.setCustomer(new DemoVO(String.valueOf(seq % DICT_SIZE), seq++ % SCHOOL_SIZE));
+            List<OrderVO.OrderItemVO> items = new ArrayList<>(itemSize);
+            for (int j = 0; j < itemSize; j++) {
+                OrderVO.OrderItemVO item = new OrderVO.OrderItemVO();
+                item.setSchoolId(seq % SCHOOL_SIZE);
+                item.setOwner(new DemoVO(String.valueOf(seq % DICT_SIZE), seq++ % SCHOOL_SIZE));
+                items.add(item);
+            }
+            order.setItems(items);
+            list.add(order);
+        }
+        return list;
+    }
+}
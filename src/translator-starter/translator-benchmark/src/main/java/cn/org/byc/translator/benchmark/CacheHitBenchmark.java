@@ -0,0 +1,61 @@
+package cn.org.byc.translator.benchmark;
+
+import cn.org.byc.translator.util.TranslatorHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 全部命中缓存时的转译：不同列表长度、Caffeine与简单Map实现的对比
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CacheHitBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int size;
+
+    @Param({"caffeine", "stub"})
+    private String cacheType;
+
+    private TranslatorHelper translatorHelper;
+
+    private List<DemoVO> demoList;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        translatorHelper = BenchmarkSupport.translatorHelper(BenchmarkSupport.dataSource(),
+                BenchmarkSupport.cacheSupport(cacheType));
+        demoList = BenchmarkSupport.demoList(size);
+        // 预热缓存，之后的调用不再查库
+        translatorHelper.handle(demoList);
+    }
+
+    @Benchmark
+    public List<DemoVO> handle() {
+        translatorHelper.handle(demoList);
+        return demoList;
+    }
+
+    @Benchmark
+    public List<DemoVO> startTrans() {
+        translatorHelper.startTrans(demoList);
+        return demoList;
+    }
+}
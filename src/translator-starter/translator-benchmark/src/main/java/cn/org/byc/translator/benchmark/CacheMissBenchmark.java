@@ -0,0 +1,71 @@
+package cn.org.byc.translator.benchmark;
+
+import cn.org.byc.translator.util.TranslatorHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 缓存为空时的转译：全部key查库，对比批量查询与逐个查询
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class CacheMissBenchmark {
+
+    @Param({"10", "1000"})
+    private int size;
+
+    private DataSource dataSource;
+
+    private List<DemoVO> demoList;
+
+    private List<SingleQueryVO> singleQueryList;
+
+    private TranslatorHelper translatorHelper;
+
+    @Setup(Level.Trial)
+    public void setupTrial() throws Exception {
+        dataSource = BenchmarkSupport.dataSource();
+        demoList = BenchmarkSupport.demoList(size);
+        singleQueryList = BenchmarkSupport.singleQueryList(size);
+    }
+
+    /**
+     * 每次调用使用空缓存，类的注册不计入
+     */
+    @Setup(Level.Invocation)
+    public void setupInvocation() {
+        translatorHelper = BenchmarkSupport.translatorHelper(dataSource, BenchmarkSupport.caffeineCacheSupport());
+        translatorHelper.handleSimple(new DemoVO());
+        translatorHelper.handleSimple(new SingleQueryVO());
+    }
+
+    @Benchmark
+    public List<DemoVO> batchQuery() {
+        translatorHelper.handle(demoList);
+        return demoList;
+    }
+
+    @Benchmark
+    public List<SingleQueryVO> singleQuery() {
+        translatorHelper.handle(singleQueryList);
+        return singleQueryList;
+    }
+}
@@ -0,0 +1,73 @@
+package cn.org.byc.translator.benchmark;
+
+import cn.org.byc.translator.annotation.TranslatorField;
+
+/**
+ * 基准测试用的VO：两个字典字段，一个批量查询字段
+ */
+public class DemoVO {
+
+    private String cardType;
+
+    @TranslatorField(associateField = "cardType", dictCode = "card", sql = "")
+    private String cardTypeName;
+
+    @TranslatorField(associateField = "cardType", dictCode = "card", sql = "")
+    private String cardTypeEngName;
+
+    private Integer schoolId;
+
+    @TranslatorField(associateField = "schoolId",
+            sql = "select name from school where id = ?",
+            batchSql = "select id, name from school where id in (%s)",
+            cacheKeyPrefix = "school:")
+    private String schoolName;
+
+    public DemoVO() {
+    }
+
+    public DemoVO(String cardType, Integer schoolId) {
+        this.cardType = cardType;
+        this.schoolId = schoolId;
+    }
+
+    public String getCardType() {
+        return cardType;
+    }
+
+    public void setCardType(String cardType) {
+        this.cardType = cardType;
+    }
+
+    public String getCardTypeName() {
+        return cardTypeName;
+    }
+
+    public void setCardTypeName(String cardTypeName) {
+        this.cardTypeName = cardTypeName;
+    }
+
+    public String getCardTypeEngName() {
+        return cardTypeEngName;
+    }
+
+    public void setCardTypeEngName(String cardTypeEngName) {
+        this.cardTypeEngName = cardTypeEngName;
+    }
+
+    public Integer getSchoolId() {
+        return schoolId;
+    }
+
+    public void setSchoolId(Integer schoolId) {
+        this.schoolId = schoolId;
+    }
+
+    public String getSchoolName() {
+        return schoolName;
+    }
+
+    public void setSchoolName(String schoolName) {
+        this.schoolName = schoolName;
+    }
+}
@@ -0,0 +1,57 @@
+package cn.org.byc.translator.benchmark;
+
+import cn.org.byc.translator.util.TranslatorHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 嵌套对象图的遍历和转译(全部命中缓存)：订单 -> 客户、明细列表 -> 明细的客户
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NestedGraphBenchmark {
+
+    @Param({"10", "1000"})
+    private int size;
+
+    @Param({"10"})
+    private int itemSize;
+
+    @Param({"caffeine", "stub"})
+    private String cacheType;
+
+    private TranslatorHelper translatorHelper;
+
+    private List<OrderVO> orderList;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        translatorHelper = BenchmarkSupport.translatorHelper(BenchmarkSupport.dataSource(),
+                BenchmarkSupport.cacheSupport(cacheType));
+        orderList = BenchmarkSupport.orderList(size, itemSize);
+        translatorHelper.handle(orderList);
+    }
+
+    @Benchmark
+    public List<OrderVO> handle() {
+        translatorHelper.handle(orderList);
+        return orderList;
+    }
+}
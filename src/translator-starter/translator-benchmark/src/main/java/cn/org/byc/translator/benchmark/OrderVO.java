@@ -0,0 +1,92 @@
+package cn.org.byc.translator.benchmark;
+
+import cn.org.byc.translator.annotation.TranslatorField;
+import cn.org.byc.translator.annotation.TranslatorNested;
+
+import java.util.List;
+
+/**
+ * 嵌套对象图：订单 -> 客户、订单明细 -> 明细的客户
+ */
+public class OrderVO {
+
+    private String status;
+
+    @TranslatorField(associateField = "status", dictCode = "card", sql = "")
+    private String statusName;
+
+    @TranslatorNested
+    private DemoVO customer;
+
+    private List<OrderItemVO> items;
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getStatusName() {
+        return statusName;
+    }
+
+    public void setStatusName(String statusName) {
+        this.statusName = statusName;
+    }
+
+    public DemoVO getCustomer() {
+        return customer;
+    }
+
+    public void setCustomer(DemoVO customer) {
+        this.customer = customer;
+    }
+
+    public List<OrderItemVO> getItems() {
+        return items;
+    }
+
+    public void setItems(List<OrderItemVO> items) {
+        this.items = items;
+    }
+
+    public static class OrderItemVO {
+
+        private Integer schoolId;
+
+        @TranslatorField(associateField = "schoolId",
+                sql = "select name from school where id = ?",
+                batchSql = "select id, name from school where id in (%s)",
+                cacheKeyPrefix = "school:")
+        private String schoolName;
+
+        @TranslatorNested
+        private DemoVO owner;
+
+        public Integer getSchoolId() {
+            return schoolId;
+        }
+
+        public void setSchoolId(Integer schoolId) {
+            this.schoolId = schoolId;
+        }
+
+        public String getSchoolName() {
+            return schoolName;
+        }
+
+        public void setSchoolName(String schoolName) {
+            this.schoolName = schoolName;
+        }
+
+        public DemoVO getOwner() {
+            return owner;
+        }
+
+        public void setOwner(DemoVO owner) {
+            this.owner = owner;
+        }
+    }
+}
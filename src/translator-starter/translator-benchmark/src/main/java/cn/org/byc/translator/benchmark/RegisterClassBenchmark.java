@@ -0,0 +1,54 @@
+package cn.org.byc.translator.benchmark;
+
+import cn.org.byc.translator.util.TranslatorHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.sql.DataSource;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 首次注册类的转译信息：每次调用使用新的TranslatorHelper，关联字段为空，只测注册本身。
+ * 编译时注解处理器会为测试类生成转译信息，测反射路径时加编译参数-Atranslator.generate=false
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RegisterClassBenchmark {
+
+    private DataSource dataSource;
+
+    private TranslatorHelper translatorHelper;
+
+    @Setup(Level.Trial)
+    public void setupTrial() throws Exception {
+        dataSource = BenchmarkSupport.dataSource();
+    }
+
+    @Setup(Level.Invocation)
+    public void setupInvocation() {
+        translatorHelper = BenchmarkSupport.translatorHelper(dataSource, BenchmarkSupport.stubCacheSupport());
+    }
+
+    @Benchmark
+    public void registerFlat() {
+        translatorHelper.handleSimple(new DemoVO());
+    }
+
+    @Benchmark
+    public void registerNested() {
+        translatorHelper.handleSimple(new OrderVO());
+    }
+}
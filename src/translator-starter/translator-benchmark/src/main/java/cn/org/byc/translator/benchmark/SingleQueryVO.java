@@ -0,0 +1,37 @@
+package cn.org.byc.translator.benchmark;
+
+import cn.org.byc.translator.annotation.TranslatorField;
+
+/**
+ * 没有批量查询模板的VO，未命中时每个key单独查库
+ */
+public class SingleQueryVO {
+
+    private Integer schoolId;
+
+    @TranslatorField(associateField = "schoolId", sql = "select name from school where id = ?", cacheKeyPrefix = "school:")
+    private String schoolName;
+
+    public SingleQueryVO() {
+    }
+
+    public SingleQueryVO(Integer schoolId) {
+        this.schoolId = schoolId;
+    }
+
+    public Integer getSchoolId() {
+        return schoolId;
+    }
+
+    public void setSchoolId(Integer schoolId) {
+        this.schoolId = schoolId;
+    }
+
+    public String getSchoolName() {
+        return schoolName;
+    }
+
+    public void setSchoolName(String schoolName) {
+        this.schoolName = schoolName;
+    }
+}